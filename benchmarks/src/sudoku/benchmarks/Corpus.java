@@ -0,0 +1,53 @@
+package sudoku.benchmarks;
+
+/**
+ * Graded sudokus used by the benchmarks, in the one-per-line 81-character format.
+ */
+public enum Corpus {
+    /**
+     * Sudokus that can be solved with singles alone.
+     */
+    EASY("..8..9.62........51.25........21..9..5....6..6......2841.6.8...86..3.1........4..",
+            "84....7.1....8..5...6.....4.7.13.4...23...198...5....379...........2...9..8.4..3."),
+
+    /**
+     * Sudokus that need long chains of guesses.
+     */
+    HARD("8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..",
+            "..53.....8......2..7..1.5..4....53...1..7...6..32...8..6.5....9..4....3......97.."),
+
+    /**
+     * Sudokus with only 17 given numbers, the minimum for a unique solution.
+     */
+    SEVENTEEN_CLUE("000000010400000000020000000000050407008000300001090000300400200050100000000806000",
+            "000000012000035000000600070700000300000400800100000000000120000080000040050000600"),
+
+    /**
+     * Sudokus without duplicates in any unit that still have no solution.
+     */
+    UNSOLVABLE("123......456.........7...........................................................",
+            ".....5.8....6.1.43..........1.5........1.6...3.......553.....61........4........."),
+    ;
+
+    private final byte[][] puzzles;
+
+    Corpus(String... lines) {
+        puzzles = new byte[lines.length][81];
+        for (int i = 0; i < lines.length; i++) {
+            for (int j = 0; j < 81; j++) {
+                char ch = lines[i].charAt(j);
+                puzzles[i][j] = (byte) (ch == '.' ? 0 : ch - '0');
+            }
+        }
+    }
+
+    /**
+     * Returns the sudokus of the corpus as arrays of 81 numbers, row by row, with 0 for an empty box.
+     * The arrays are shared and must not be modified.
+     *
+     * @return the sudokus
+     */
+    public byte[][] puzzles() {
+        return puzzles;
+    }
+}
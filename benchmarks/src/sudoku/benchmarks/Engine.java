@@ -0,0 +1,57 @@
+package sudoku.benchmarks;
+
+import sudoku.ClassicSudokuSolver;
+import sudoku.DancingLinksSudokuSolver;
+import sudoku.GeneralSudokuSolver;
+import sudoku.ParallelSudokuSolver;
+import sudoku.SearchStrategy;
+import sudoku.SudokuSolver;
+
+/**
+ * The solver implementations compared by the benchmarks.
+ */
+public enum Engine {
+    CLASSIC {
+        @Override
+        public SudokuSolver create() {
+            return new ClassicSudokuSolver(SearchStrategy.ROW_MAJOR);
+        }
+    },
+    MOST_CONSTRAINED {
+        @Override
+        public SudokuSolver create() {
+            return new ClassicSudokuSolver(SearchStrategy.MOST_CONSTRAINED);
+        }
+    },
+    DEDUCTION {
+        @Override
+        public SudokuSolver create() {
+            return new ClassicSudokuSolver(SearchStrategy.DEDUCTION);
+        }
+    },
+    DANCING_LINKS {
+        @Override
+        public SudokuSolver create() {
+            return new DancingLinksSudokuSolver();
+        }
+    },
+    GENERAL {
+        @Override
+        public SudokuSolver create() {
+            return new GeneralSudokuSolver(3);
+        }
+    },
+    PARALLEL {
+        @Override
+        public SudokuSolver create() {
+            return new ParallelSudokuSolver();
+        }
+    };
+
+    /**
+     * Creates a new, empty solver of this kind.
+     *
+     * @return the solver
+     */
+    public abstract SudokuSolver create();
+}
@@ -0,0 +1,87 @@
+package sudoku.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sudoku.SudokuSolver;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the validity checks and the cost of copying a grid in and out of a solver.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GridBenchmark {
+    @Param({"CLASSIC", "DANCING_LINKS"})
+    public Engine engine;
+
+    private SudokuSolver solver;
+    private int[][] matrix;
+    private byte[] cells;
+    private byte[] copy;
+
+    @Setup
+    public void setUp() {
+        solver = engine.create();
+        solver.setCells(Corpus.EASY.puzzles()[0], 0);
+        matrix = solver.getMatrix();
+        cells = Corpus.EASY.puzzles()[0].clone();
+        copy = new byte[81];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(729)
+    public int isValid() {
+        int valid = 0;
+        for (int r = 0; r < 9; r++) {
+            for (int c = 0; c < 9; c++) {
+                for (int nbr = 1; nbr <= 9; nbr++) {
+                    if (solver.isValid(r, c, nbr)) {
+                        valid++;
+                    }
+                }
+            }
+        }
+        return valid;
+    }
+
+    @Benchmark
+    public boolean isAllValid() {
+        return solver.isAllValid();
+    }
+
+    @Benchmark
+    public void setMatrix() {
+        solver.setMatrix(matrix);
+    }
+
+    @Benchmark
+    public int[][] getMatrix() {
+        return solver.getMatrix();
+    }
+
+    @Benchmark
+    public void setCells() {
+        solver.setCells(cells, 0);
+    }
+
+    @Benchmark
+    public byte[] getCells() {
+        solver.getCells(copy, 0);
+        return copy;
+    }
+}
@@ -0,0 +1,76 @@
+package sudoku.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sudoku.LaneSolver;
+import sudoku.SudokuSolver;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares solving a block of sudokus in lock-step lanes with solving them one by one with the
+ * fallback engine. Every invocation solves <code>BLOCK</code> sudokus, cycling through the corpus.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class LaneBenchmark {
+    private static final int BLOCK = 4 * LaneSolver.LANES;
+
+    @Param({"MOST_CONSTRAINED", "DANCING_LINKS"})
+    public Engine engine;
+
+    @Param({"EASY", "HARD"})
+    public Corpus corpus;
+
+    private SudokuSolver solver;
+    private LaneSolver lanes;
+    private byte[] block;
+    private byte[] cells;
+
+    @Setup
+    public void setUp() {
+        solver = engine.create();
+        lanes = new LaneSolver(engine.create());
+        byte[][] puzzles = corpus.puzzles();
+        block = new byte[BLOCK * 81];
+        for (int k = 0; k < BLOCK; k++) {
+            System.arraycopy(puzzles[k % puzzles.length], 0, block, k * 81, 81);
+        }
+        cells = new byte[BLOCK * 81];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BLOCK)
+    public int lanes() {
+        System.arraycopy(block, 0, cells, 0, cells.length);
+        return lanes.solveAll(cells, 0, BLOCK, null);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BLOCK)
+    public int oneByOne() {
+        int solved = 0;
+        for (int k = 0; k < BLOCK; k++) {
+            solver.setCells(block, k * 81);
+            if (solver.solve()) {
+                solver.getCells(cells, k * 81);
+                solved++;
+            }
+        }
+        return solved;
+    }
+}
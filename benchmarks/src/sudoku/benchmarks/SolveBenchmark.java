@@ -0,0 +1,51 @@
+package sudoku.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sudoku.SudokuSolver;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures <code>solve</code> for every engine on every corpus. Each invocation loads the next sudoku of the
+ * corpus with <code>setCells</code> and solves it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SolveBenchmark {
+    @Param({"CLASSIC", "MOST_CONSTRAINED", "DEDUCTION", "DANCING_LINKS"})
+    public Engine engine;
+
+    @Param({"EASY", "HARD", "SEVENTEEN_CLUE", "UNSOLVABLE"})
+    public Corpus corpus;
+
+    private SudokuSolver solver;
+    private byte[][] puzzles;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        solver = engine.create();
+        puzzles = corpus.puzzles();
+    }
+
+    @Benchmark
+    public boolean solve() {
+        solver.setCells(puzzles[next], 0);
+        next = (next + 1) % puzzles.length;
+        return solver.solve();
+    }
+}
@@ -0,0 +1,109 @@
+package sudoku;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Solves sudokus on background threads, returning a <code>CompletableFuture</code> for every sudoku.
+ * <p>
+ * A future can be cancelled by the caller and can be given a timeout after which it completes with a
+ * <code>java.util.concurrent.TimeoutException</code>. In both cases the solver working on the sudoku notices
+ * through its cancellation check within a few thousand search nodes and moves on to the next sudoku.
+ * Each worker thread reuses one <code>SudokuSolver</code> created by the supplied factory.
+ */
+public class AsyncSolver implements AutoCloseable {
+    private final ExecutorService executor;
+    private final ThreadLocal<SudokuSolver> solvers;
+
+    /**
+     * Constructs new AsyncSolver with the given number of worker threads
+     *
+     * @param factory creates the solver used by each worker thread
+     * @param threads the number of worker threads
+     * @throws IllegalArgumentException if factory is null or threads is less than 1
+     */
+    public AsyncSolver(Supplier<SudokuSolver> factory, int threads) {
+        if (factory == null) {
+            throw new IllegalArgumentException("factory is null");
+        } else if (threads < 1) {
+            throw new IllegalArgumentException("threads is less than 1");
+        }
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "sudoku-solver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        solvers = ThreadLocal.withInitial(factory);
+    }
+
+    /**
+     * Starts solving puzzle without a time limit.
+     *
+     * @param puzzle the sudoku, as a matrix accepted by <code>SudokuSolver.setMatrix</code>
+     * @return a future completed with the solution, or with null if the sudoku is not solvable
+     */
+    public CompletableFuture<int[][]> solve(int[][] puzzle) {
+        CompletableFuture<int[][]> future = new CompletableFuture<>();
+        executor.execute(() -> solve(puzzle, future));
+        return future;
+    }
+
+    /**
+     * Starts solving puzzle. The time limit includes the time the sudoku waits for a free worker thread.
+     *
+     * @param puzzle  the sudoku, as a matrix accepted by <code>SudokuSolver.setMatrix</code>
+     * @param timeout the time limit
+     * @param unit    the unit of timeout
+     * @return a future completed with the solution, with null if the sudoku is not solvable, or with a
+     * <code>TimeoutException</code> if the time limit was reached first
+     */
+    public CompletableFuture<int[][]> solve(int[][] puzzle, long timeout, TimeUnit unit) {
+        CompletableFuture<int[][]> future = new CompletableFuture<>();
+        future.orTimeout(timeout, unit);
+        executor.execute(() -> solve(puzzle, future));
+        return future;
+    }
+
+    /**
+     * Stops the worker threads. Sudokus still waiting for a worker are not solved and their futures are
+     * cancelled, and running searches are cancelled.
+     */
+    @Override
+    public void close() {
+        for (Runnable waiting : executor.shutdownNow()) {
+            waiting.run();
+        }
+    }
+
+    /**
+     * Private helpmethod solving one sudoku on the current worker thread and completing its future. Does
+     * nothing if the future is already done, and stops searching as soon as it is.
+     *
+     * @param puzzle the sudoku
+     * @param future the future to complete
+     */
+    private void solve(int[][] puzzle, CompletableFuture<int[][]> future) {
+        if (executor.isShutdown()) {
+            future.cancel(false);
+            return;
+        } else if (future.isDone()) {
+            return;
+        }
+        SudokuSolver solver = solvers.get();
+        solver.setCancellationCheck(() -> future.isDone() || executor.isShutdown());
+        try {
+            solver.setMatrix(puzzle);
+            future.complete(solver.solve() ? solver.getMatrix() : null);
+        } catch (CancellationException e) {
+            future.cancel(false);
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        } finally {
+            solver.setCancellationCheck(null);
+        }
+    }
+}
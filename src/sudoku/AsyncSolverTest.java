@@ -0,0 +1,96 @@
+package sudoku;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for testing the asynchronous solver.
+ */
+class AsyncSolverTest {
+    /**
+     * A sudoku that takes row-major backtracking several seconds
+     */
+    private static final int[][] SLOW = {
+            {0, 0, 0, 0, 0, 0, 0, 0, 0},
+            {0, 0, 0, 0, 0, 3, 0, 8, 5},
+            {0, 0, 1, 0, 2, 0, 0, 0, 0},
+            {0, 0, 0, 5, 0, 7, 0, 0, 0},
+            {0, 0, 4, 0, 0, 0, 1, 0, 0},
+            {0, 9, 0, 0, 0, 0, 0, 0, 0},
+            {5, 0, 0, 0, 0, 0, 0, 7, 3},
+            {0, 0, 2, 0, 1, 0, 0, 0, 0},
+            {0, 0, 0, 0, 4, 0, 0, 0, 9}
+    };
+
+    AsyncSolver asyncSolver;
+
+    @BeforeEach
+    void setUp() {
+        asyncSolver = new AsyncSolver(ClassicSudokuSolver::new, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        asyncSolver.close();
+    }
+
+    @Test
+    void testSolve() throws InterruptedException, ExecutionException {
+        int[][] unsolvable = new int[9][9];
+        unsolvable[0][0] = 1;
+        unsolvable[1][1] = 1;
+        assertNull(asyncSolver.solve(unsolvable).get());
+
+        int[][] solution = asyncSolver.solve(new int[9][9], 10, TimeUnit.SECONDS).get();
+        ClassicSudokuSolver solver = new ClassicSudokuSolver();
+        solver.setMatrix(solution);
+        assertTrue(solver.isAllValid());
+        assertNotEquals(solution[8][8], 0);
+    }
+
+    @Test
+    void testTimeout() throws InterruptedException, ExecutionException {
+        long start = System.nanoTime();
+        CompletableFuture<int[][]> slow = asyncSolver.solve(SLOW, 100, TimeUnit.MILLISECONDS);
+        ExecutionException e = assertThrows(ExecutionException.class, slow::get);
+        assertTrue(e.getCause() instanceof TimeoutException);
+
+        CompletableFuture<int[][]> next = asyncSolver.solve(new int[9][9]);
+        assertNotNull(next.get());
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+    }
+
+    @Test
+    void testCancel() throws InterruptedException, ExecutionException {
+        CompletableFuture<int[][]> slow = asyncSolver.solve(SLOW);
+        Thread.sleep(50);
+        assertTrue(slow.cancel(false));
+        assertThrows(CancellationException.class, slow::get);
+        assertNotNull(asyncSolver.solve(new int[9][9]).get());
+    }
+
+    @Test
+    void testCancellationRestoresGrid() {
+        ClassicSudokuSolver solver = new ClassicSudokuSolver();
+        solver.setMatrix(SLOW);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50);
+        solver.setCancellationCheck(() -> System.nanoTime() > deadline);
+        assertThrows(CancellationException.class, solver::solve);
+        int[][] matrixResult = solver.getMatrix();
+        for (int i = 0; i < 9; i++) {
+            assertArrayEquals(SLOW[i], matrixResult[i]);
+        }
+        assertTrue(solver.isAllValid());
+        solver.setCancellationCheck(null);
+        assertEquals(solver.countSolutions(2), 1);
+    }
+}
@@ -0,0 +1,98 @@
+package sudoku;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Solves collections of sudokus in parallel on a fork-join pool.
+ * <p>
+ * Every worker thread creates one <code>SudokuSolver</code> from the supplied factory the first time it is
+ * used and then reuses it for every sudoku it is given. Results are returned in the same order as the input.
+ */
+public class BatchSolver implements AutoCloseable {
+    private final ForkJoinPool pool;
+    private final ThreadLocal<SudokuSolver> solvers;
+
+    /**
+     * Constructs new BatchSolver using all available processors
+     *
+     * @param factory creates the solver used by each worker thread
+     * @throws IllegalArgumentException if factory is null
+     */
+    public BatchSolver(Supplier<SudokuSolver> factory) {
+        this(factory, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs new BatchSolver with the given number of worker threads
+     *
+     * @param factory     creates the solver used by each worker thread
+     * @param parallelism the number of worker threads
+     * @throws IllegalArgumentException if factory is null or parallelism is less than 1
+     */
+    public BatchSolver(Supplier<SudokuSolver> factory, int parallelism) {
+        if (factory == null) {
+            throw new IllegalArgumentException("factory is null");
+        } else if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism is less than 1");
+        }
+        pool = new ForkJoinPool(parallelism);
+        solvers = ThreadLocal.withInitial(factory);
+    }
+
+    /**
+     * Solves every sudoku in puzzles.
+     *
+     * @param puzzles the sudokus to solve, as matrices accepted by <code>SudokuSolver.setMatrix</code>
+     * @return the solutions in the same order as puzzles, with null for every sudoku that is not solvable
+     * @throws IllegalArgumentException if any puzzle is rejected by <code>SudokuSolver.setMatrix</code>
+     */
+    public List<int[][]> solveAll(List<int[][]> puzzles) {
+        return solveAll(puzzles.stream());
+    }
+
+    /**
+     * Solves every sudoku in puzzles. The stream is consumed by the worker threads of this BatchSolver.
+     *
+     * @param puzzles the sudokus to solve, as matrices accepted by <code>SudokuSolver.setMatrix</code>
+     * @return the solutions in the encounter order of puzzles, with null for every sudoku that is not solvable
+     * @throws IllegalArgumentException if any puzzle is rejected by <code>SudokuSolver.setMatrix</code>
+     */
+    public List<int[][]> solveAll(Stream<int[][]> puzzles) {
+        try {
+            return pool.submit(() -> puzzles.parallel().map(this::solveOne).collect(Collectors.toList())).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while solving", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Shuts down the worker threads. Sudokus already submitted are still solved.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * Private helpmethod solving one sudoku with the solver of the current worker thread
+     *
+     * @param puzzle the sudoku
+     * @return the solution, or null if the sudoku is not solvable
+     */
+    private int[][] solveOne(int[][] puzzle) {
+        SudokuSolver solver = solvers.get();
+        solver.setMatrix(puzzle);
+        return solver.solve() ? solver.getMatrix() : null;
+    }
+}
@@ -0,0 +1,83 @@
+package sudoku;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for testing the batch solver.
+ */
+class BatchSolverTest {
+    BatchSolver batchSolver;
+
+    @BeforeEach
+    void setUp() {
+        batchSolver = new BatchSolver(ClassicSudokuSolver::new, 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchSolver.close();
+    }
+
+    @Test
+    void testResultsInInputOrder() {
+        int[][] unsolvable = new int[9][9];
+        unsolvable[0][0] = 1;
+        unsolvable[0][1] = 1;
+
+        List<int[][]> puzzles = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            puzzles.add(i % 3 == 0 ? unsolvable : TestPuzzles.EASY);
+        }
+        List<int[][]> solutions = batchSolver.solveAll(puzzles);
+        assertEquals(solutions.size(), 200);
+
+        ClassicSudokuSolver solver = new ClassicSudokuSolver();
+        solver.setMatrix(TestPuzzles.EASY);
+        solver.solve();
+        int[][] matrixTrue = solver.getMatrix();
+        for (int i = 0; i < 200; i++) {
+            if (i % 3 == 0) {
+                assertNull(solutions.get(i));
+            } else {
+                for (int r = 0; r < 9; r++) {
+                    assertArrayEquals(matrixTrue[r], solutions.get(i)[r]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testInvalidPuzzle() {
+        List<int[][]> puzzles = new ArrayList<>();
+        puzzles.add(new int[8][9]);
+        assertThrows(IllegalArgumentException.class, () -> batchSolver.solveAll(puzzles));
+    }
+
+    @Test
+    void testStatisticsAcrossWorkers() {
+        SearchStatsAggregator statistics = new SearchStatsAggregator();
+        BatchSolver instrumented = new BatchSolver(() -> {
+            ClassicSudokuSolver solver = new ClassicSudokuSolver(SearchStrategy.DEDUCTION);
+            solver.setSearchListener(statistics);
+            return solver;
+        }, 4);
+        List<int[][]> puzzles = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            puzzles.add(new int[9][9]);
+        }
+        instrumented.solveAll(puzzles);
+        instrumented.close();
+        assertEquals(statistics.getSearches(), 500);
+        assertEquals(statistics.getSolutions(), 500);
+        assertTrue(statistics.getNodes() >= 500);
+        assertTrue(statistics.getDeduced() + statistics.getGuesses() >= 500 * 81);
+    }
+
+}
@@ -0,0 +1,193 @@
+package sudoku;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * A <code>SudokuSolver</code> that looks up every sudoku in a <code>SolutionCache</code> before solving it
+ * with another solver, and caches what that solver finds.
+ * <p>
+ * The sudoku is reduced to its canonical form first, so a solution cached for an equivalent sudoku is
+ * mapped back to the orientation and numbers of the sudoku being solved. Everything except
+ * <code>solve</code> is passed straight to the other solver.
+ */
+public class CachingSudokuSolver implements SudokuSolver {
+    private final SudokuSolver solver;
+    private final SolutionCache cache;
+    private final byte[] cells = new byte[81];
+    private final byte[] canonical = new byte[81];
+
+    /**
+     * Constructs new CachingSudokuSolver
+     *
+     * @param solver the solver used when the cache has no solution
+     * @param cache  the cache, which may be shared with other CachingSudokuSolvers
+     * @throws IllegalArgumentException if solver or cache is null, or solver is not for classic nine-by-nine sudokus
+     */
+    public CachingSudokuSolver(SudokuSolver solver, SolutionCache cache) {
+        if (solver == null || cache == null) {
+            throw new IllegalArgumentException("solver or cache is null");
+        } else if (solver.getDimension() != 9) {
+            throw new IllegalArgumentException("solver is not for nine-by-nine sudokus");
+        }
+        this.solver = solver;
+        this.cache = cache;
+    }
+
+    /**
+     * Sets the number nbr in box r, c.
+     *
+     * @param r   The row
+     * @param c   The column
+     * @param nbr The number to insert in box r, c
+     * @throws IllegalArgumentException if r or c are out of bounds [0..8] or nbr is outside [1..9]
+     */
+    public void setNumber(int r, int c, int nbr) {
+        solver.setNumber(r, c, nbr);
+    }
+
+    /**
+     * Returns the number in box r,c. If the box is empty 0 is returned.
+     *
+     * @param r The row
+     * @param c The column
+     * @return the number in box r,c or 0 if the box is empty.
+     * @throws IllegalArgumentException if r or c are out of bounds [0..8]
+     */
+    public int getNumber(int r, int c) {
+        return solver.getNumber(r, c);
+    }
+
+    /**
+     * Clears the number in box r,c (sets it to 0)
+     *
+     * @param r The row
+     * @param c The column
+     * @throws IllegalArgumentException if r or c are out of bounds [0..8]
+     */
+    public void clearNumber(int r, int c) {
+        solver.clearNumber(r, c);
+    }
+
+    /**
+     * Checks if value nbr is valid in box r,c
+     *
+     * @param r   The row
+     * @param c   The column
+     * @param nbr The number to check
+     * @return true if number is valid in box r,c, false if not
+     * @throws IllegalArgumentException if r,c out of bounds [0..8] or nbr is outside of [1..9]
+     */
+    public boolean isValid(int r, int c, int nbr) {
+        return solver.isValid(r, c, nbr);
+    }
+
+    /**
+     * Checks if all values in the grid are valid.
+     *
+     * @return true if all values are valid, false if any value is not valid
+     */
+    public boolean isAllValid() {
+        return solver.isAllValid();
+    }
+
+    /**
+     * Tries to solve the sudoku, using the cached solution of an equivalent sudoku if there is one.
+     *
+     * @return true if it was solved, false if not solvable
+     */
+    public boolean solve() {
+        if (!solver.isAllValid()) {
+            return false;
+        }
+        solver.getCells(cells, 0);
+        CanonicalForm form = new CanonicalForm(cells);
+        int cached = cache.get(form, canonical);
+        if (cached >= 0) {
+            if (cached == 1) {
+                form.restore(canonical, cells);
+                solver.setCells(cells, 0);
+            }
+            return cached == 1;
+        }
+
+        boolean solved = solver.solve();
+        if (solved) {
+            solver.getCells(cells, 0);
+            form.canonicalize(cells, canonical);
+        }
+        cache.put(form, solved ? canonical : null);
+        return solved;
+    }
+
+    /**
+     * Counts the solutions of the sudoku with the other solver, stopping as soon as limit solutions have been
+     * found. The grid is left unchanged. The cache is not used.
+     *
+     * @param limit the maximum number of solutions to count
+     * @return the number of solutions, at most limit
+     * @throws IllegalArgumentException if limit is less than 1
+     */
+    public int countSolutions(int limit) {
+        return solver.countSolutions(limit);
+    }
+
+    /**
+     * Sets a condition that the other solver polls while searching. A solution found in the cache is
+     * returned without polling it.
+     *
+     * @param cancellationCheck the condition, or null to never cancel
+     */
+    public void setCancellationCheck(BooleanSupplier cancellationCheck) {
+        solver.setCancellationCheck(cancellationCheck);
+    }
+
+    /**
+     * Clears the sudoku.
+     */
+    public void clear() {
+        solver.clear();
+    }
+
+    /**
+     * Returns the numbers in the grid. An empty box is represented
+     * by the value 0.
+     *
+     * @return the numbers in the grid
+     */
+    public int[][] getMatrix() {
+        return solver.getMatrix();
+    }
+
+    /**
+     * Fills the grid with the numbers in nbrs.
+     *
+     * @param nbrs the matrix with the numbers to insert
+     * @throws IllegalArgumentException if nbrs have wrong dimension or containing values not in [0..9]
+     */
+    public void setMatrix(int[][] nbrs) {
+        solver.setMatrix(nbrs);
+    }
+
+    /**
+     * Copies the numbers in the grid row by row into dst, starting at offset. An empty box is
+     * represented by the value 0.
+     *
+     * @param dst    the array to copy the 81 numbers to
+     * @param offset the index in dst of the number in box 0,0
+     * @throws IllegalArgumentException if the 81 numbers do not fit in dst at offset
+     */
+    public void getCells(byte[] dst, int offset) {
+        solver.getCells(dst, offset);
+    }
+
+    /**
+     * Fills the grid row by row with the 81 numbers in src starting at offset.
+     *
+     * @param src    the array with the numbers to insert, 0 for an empty box
+     * @param offset the index in src of the number for box 0,0
+     * @throws IllegalArgumentException if src has fewer than 81 numbers at offset or contains values not in [0..9]
+     */
+    public void setCells(byte[] src, int offset) {
+        solver.setCells(src, offset);
+    }
+}
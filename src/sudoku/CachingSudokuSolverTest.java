@@ -0,0 +1,122 @@
+package sudoku;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for testing the caching sudoku solver and its solution cache.
+ */
+class CachingSudokuSolverTest {
+    SolutionCache cache;
+    CachingSudokuSolver solver;
+
+    @BeforeEach
+    void setUp() {
+        cache = new SolutionCache(2);
+        solver = new CachingSudokuSolver(new DancingLinksSudokuSolver(), cache);
+    }
+
+    /**
+     * Swaps the first two bands, transposes the grid and swaps the numbers 1 and 2
+     */
+    private static int[][] variant(int[][] puzzle) {
+        int[][] result = new int[9][9];
+        for (int r = 0; r < 9; r++) {
+            for (int c = 0; c < 9; c++) {
+                int nbr = puzzle[r < 6 ? (r + 3) % 6 : r][c];
+                result[c][r] = nbr == 1 ? 2 : nbr == 2 ? 1 : nbr;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks that the solver holds a complete, valid grid that keeps every number of the puzzle
+     */
+    private static void assertSolves(SudokuSolver solver, int[][] puzzle) {
+        int[][] solution = solver.getMatrix();
+        ClassicSudokuSolver check = new ClassicSudokuSolver();
+        check.setMatrix(solution);
+        assertTrue(check.isAllValid());
+        for (int r = 0; r < 9; r++) {
+            for (int c = 0; c < 9; c++) {
+                assertNotEquals(solution[r][c], 0);
+                if (puzzle[r][c] != 0) {
+                    assertEquals(solution[r][c], puzzle[r][c]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testHitOnEquivalentSudoku() {
+        solver.setMatrix(TestPuzzles.HARD);
+        assertTrue(solver.solve());
+        assertSolves(solver, TestPuzzles.HARD);
+        assertEquals(cache.getHits(), 0);
+        assertEquals(cache.getMisses(), 1);
+
+        int[][] variant = variant(TestPuzzles.HARD);
+        solver.setMatrix(variant);
+        assertTrue(solver.solve());
+        assertSolves(solver, variant);
+        assertEquals(cache.getHits(), 1);
+        assertEquals(cache.getHitRate(), 0.5);
+        assertEquals(cache.size(), 1);
+        assertEquals(cache.getEstimatedBytes(), SolutionCache.ESTIMATED_ENTRY_BYTES);
+    }
+
+    @Test
+    void testUnsolvableIsCached() {
+        int[][] puzzle = new int[9][9];
+        puzzle[0][0] = 1;
+        puzzle[0][1] = 2;
+        puzzle[0][2] = 3;
+        puzzle[1][0] = 4;
+        puzzle[1][1] = 5;
+        puzzle[1][2] = 6;
+        puzzle[2][3] = 7;
+        puzzle[8][2] = 7;
+        solver.setMatrix(puzzle);
+        assertFalse(solver.solve());
+        solver.setMatrix(puzzle);
+        assertFalse(solver.solve());
+        assertEquals(solver.getNumber(2, 0), 0);
+        assertEquals(cache.getHits(), 1);
+    }
+
+    @Test
+    void testLeastRecentlyUsedIsEvicted() {
+        int[][] other = new int[9][9];
+        int[][] third = new int[9][9];
+        third[0][0] = 1;
+        solver.setMatrix(TestPuzzles.HARD);
+        solver.solve();
+        solver.setMatrix(other);
+        solver.solve();
+        solver.setMatrix(TestPuzzles.HARD);
+        solver.solve();
+        solver.setMatrix(third);
+        solver.solve();
+        assertEquals(cache.size(), 2);
+        assertEquals(cache.getEvictions(), 1);
+
+        solver.setMatrix(TestPuzzles.HARD);
+        solver.solve();
+        assertEquals(cache.getHits(), 2);
+        solver.setMatrix(other);
+        solver.solve();
+        assertEquals(cache.getHits(), 2);
+        assertSolves(solver, other);
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new SolutionCache(0));
+        assertThrows(IllegalArgumentException.class, () -> new CachingSudokuSolver(null, cache));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CachingSudokuSolver(new GeneralSudokuSolver(4), cache));
+    }
+}
@@ -0,0 +1,249 @@
+package sudoku;
+
+import java.util.Arrays;
+
+/**
+ * The canonical form of the givens of a classic sudoku, together with the transformation that leads
+ * to it, so a solution of the canonical form can be mapped back to the original sudoku.
+ * <p>
+ * Sudokus that differ only by relabeling the numbers, permuting rows within a band, permuting bands,
+ * permuting columns within a stack, permuting stacks or transposing are equivalent. To find the canonical
+ * form the rows, columns and numbers are repeatedly given classes from how their givens relate to the classes
+ * of the others, which only depends on the structure of the sudoku and not on its orientation or labels.
+ * Bands, rows, stacks and columns are then sorted by class, the numbers are relabeled in order of first
+ * appearance, and the smaller of the plain and the transposed result is taken. Elements that still share a
+ * class keep their original order, so equivalent sudokus with such symmetries can get different canonical
+ * forms. Equal canonical forms always belong to equivalent sudokus.
+ */
+final class CanonicalForm {
+    /**
+     * The largest number of refinement rounds. Refinement stops earlier once a round adds no new classes.
+     */
+    private static final int MAX_ROUNDS = 6;
+
+    private final byte[] givens = new byte[81];
+    private final int[] origin = new int[81];
+    private final byte[] labels = new byte[10];
+    private final byte[] relabel = new byte[10];
+
+    /**
+     * Computes the canonical form of the givens in cells
+     *
+     * @param cells the numbers of the sudoku row by row, 0 for an empty box
+     */
+    CanonicalForm(byte[] cells) {
+        byte[] transposedGivens = new byte[81];
+        int[] transposedOrigin = new int[81];
+        byte[] transposedLabels = new byte[10];
+        orient(cells, false, givens, origin, labels);
+        orient(cells, true, transposedGivens, transposedOrigin, transposedLabels);
+        if (Arrays.compare(transposedGivens, givens) < 0) {
+            System.arraycopy(transposedGivens, 0, givens, 0, 81);
+            System.arraycopy(transposedOrigin, 0, origin, 0, 81);
+            System.arraycopy(transposedLabels, 0, labels, 0, 10);
+        }
+        for (int nbr = 1; nbr <= 9; nbr++) {
+            relabel[labels[nbr]] = (byte) nbr;
+        }
+    }
+
+    /**
+     * Returns the canonical givens row by row, 0 for an empty box. The array is shared, not copied.
+     *
+     * @return the canonical givens
+     */
+    byte[] getGivens() {
+        return givens;
+    }
+
+    /**
+     * Maps a grid of the original sudoku, for example its solution, to the canonical form
+     *
+     * @param original the grid in the original form, row by row
+     * @param dst      the array receiving the grid in canonical form, row by row
+     */
+    void canonicalize(byte[] original, byte[] dst) {
+        for (int i = 0; i < 81; i++) {
+            dst[i] = relabel[original[origin[i]]];
+        }
+    }
+
+    /**
+     * Maps a grid in canonical form back to the orientation and labels of the original sudoku
+     *
+     * @param canonical the grid in canonical form, row by row
+     * @param dst       the array receiving the grid in the original form, row by row
+     */
+    void restore(byte[] canonical, byte[] dst) {
+        for (int i = 0; i < 81; i++) {
+            dst[origin[i]] = labels[canonical[i]];
+        }
+    }
+
+    /**
+     * Private helpmethod computing the canonical form of one orientation of the sudoku
+     *
+     * @param cells      the numbers of the sudoku row by row
+     * @param transposed true to read the rows of cells as columns
+     * @param dst        the array receiving the givens in this orientation's canonical form
+     * @param dstOrigin  the array receiving, for every canonical box, its index in cells
+     * @param dstLabels  the array receiving, for every canonical number, the original number
+     */
+    private static void orient(byte[] cells, boolean transposed, byte[] dst, int[] dstOrigin, byte[] dstLabels) {
+        int[] grid = new int[81];
+        for (int i = 0; i < 81; i++) {
+            grid[i] = transposed ? cells[(i % 9) * 9 + i / 9] : cells[i];
+        }
+
+        int[] rowClass = new int[9];
+        int[] colClass = new int[9];
+        int[] nbrClass = new int[10];
+        long[] rowSig = new long[9];
+        long[] colSig = new long[9];
+        long[] nbrSig = new long[10];
+        long[] pairs = new long[9];
+        int classes = 0;
+        for (int round = 0; round < MAX_ROUNDS; round++) {
+            int[] bandClass = bandClasses(rowClass);
+            int[] stackClass = bandClasses(colClass);
+            Arrays.fill(nbrSig, 0);
+            for (int k = 0; k < 9; k++) {
+                for (int j = 0; j < 9; j++) {
+                    int rowNbr = grid[k * 9 + j];
+                    pairs[j] = rowNbr == 0 ? 0 : 1 + colClass[j] * 16L + nbrClass[rowNbr];
+                    if (rowNbr != 0) {
+                        nbrSig[rowNbr] += mix(1 + rowClass[k] * 16L + colClass[j]);
+                    }
+                }
+                rowSig[k] = sortedHash(pairs, rowClass[k] * 16L + bandClass[k / 3]);
+                for (int j = 0; j < 9; j++) {
+                    int nbr = grid[j * 9 + k];
+                    pairs[j] = nbr == 0 ? 0 : 1 + rowClass[j] * 16L + nbrClass[nbr];
+                }
+                colSig[k] = sortedHash(pairs, colClass[k] * 16L + stackClass[k / 3]);
+            }
+            for (int nbr = 1; nbr <= 9; nbr++) {
+                nbrSig[nbr] = mix(nbrSig[nbr] + nbrClass[nbr]);
+            }
+            nbrSig[0] = Long.MIN_VALUE;
+            int refined = rank(rowSig, rowClass) + rank(colSig, colClass) + rank(nbrSig, nbrClass);
+            if (refined == classes) {
+                break;
+            }
+            classes = refined;
+        }
+
+        int[] rowOrder = order(rowClass);
+        int[] colOrder = order(colClass);
+        byte[] relabel = new byte[10];
+        byte next = 1;
+        for (int i = 0; i < 81; i++) {
+            int r = rowOrder[i / 9];
+            int c = colOrder[i % 9];
+            int nbr = grid[r * 9 + c];
+            if (nbr != 0 && relabel[nbr] == 0) {
+                relabel[nbr] = next++;
+            }
+            dst[i] = relabel[nbr];
+            dstOrigin[i] = transposed ? c * 9 + r : r * 9 + c;
+        }
+        for (int nbr = 1; nbr <= 9; nbr++) {
+            if (relabel[nbr] == 0) {
+                relabel[nbr] = next++;
+            }
+            dstLabels[relabel[nbr]] = (byte) nbr;
+        }
+    }
+
+    /**
+     * Private helpmethod giving every band (or stack) a class from the classes of its rows (or columns)
+     *
+     * @param lineClass the classes of the nine rows or columns
+     * @return the classes of the three bands or stacks
+     */
+    private static int[] bandClasses(int[] lineClass) {
+        long[] sig = new long[3];
+        long[] lines = new long[3];
+        for (int b = 0; b < 3; b++) {
+            for (int i = 0; i < 3; i++) {
+                lines[i] = lineClass[b * 3 + i];
+            }
+            sig[b] = sortedHash(lines, 0);
+        }
+        int[] bandClass = new int[3];
+        rank(sig, bandClass);
+        return bandClass;
+    }
+
+    /**
+     * Private helpmethod ordering bands by class, and the rows within every band by class.
+     * Ties keep the original order.
+     *
+     * @param lineClass the classes of the nine rows or columns
+     * @return the original row or column for every position of the canonical form
+     */
+    private static int[] order(int[] lineClass) {
+        int[] bandClass = bandClasses(lineClass);
+        Integer[] bands = {0, 1, 2};
+        Arrays.sort(bands, (a, b) -> Integer.compare(bandClass[a], bandClass[b]));
+        int[] order = new int[9];
+        for (int b = 0; b < 3; b++) {
+            Integer[] lines = {bands[b] * 3, bands[b] * 3 + 1, bands[b] * 3 + 2};
+            Arrays.sort(lines, (x, y) -> Integer.compare(lineClass[x], lineClass[y]));
+            for (int i = 0; i < 3; i++) {
+                order[b * 3 + i] = lines[i];
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Private helpmethod hashing a multiset of values independently of their order. Sorts values in place.
+     *
+     * @param values the values
+     * @param seed   a value mixed into the hash
+     * @return the hash
+     */
+    private static long sortedHash(long[] values, long seed) {
+        Arrays.sort(values);
+        long hash = mix(seed);
+        for (long value : values) {
+            hash = mix(hash + value);
+        }
+        return hash;
+    }
+
+    /**
+     * Private helpmethod replacing every signature by the number of distinct smaller signatures
+     *
+     * @param sig     the signatures
+     * @param classes the array receiving the classes
+     * @return the number of distinct signatures
+     */
+    private static int rank(long[] sig, int[] classes) {
+        long[] sorted = sig.clone();
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        for (int i = 0; i < sig.length; i++) {
+            classes[i] = Arrays.binarySearch(sorted, 0, distinct, sig[i]);
+        }
+        return distinct;
+    }
+
+    /**
+     * Private helpmethod scrambling the bits of a value
+     *
+     * @param value the value
+     * @return the scrambled value
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return value ^ (value >>> 33);
+    }
+}
@@ -1,20 +1,126 @@
 package sudoku;
 
 import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
 
 /**
  * Implementation of <code>SudokuSolver</code> for use with a classic nine-by-nine sudoku.
+ * <p>
+ * Besides the grid itself the solver keeps one occupancy bitmask per row, column and three-by-three
+ * area, where bit <code>nbr</code> is set if the number is present in that unit. The masks are updated
+ * in place whenever a number is set or cleared, so validity checks during solving are plain bit operations.
  */
 public class ClassicSudokuSolver implements SudokuSolver {
-    private int[][] sudokuMatrix;
+    /**
+     * Bitmask with bits 1..9 set, one bit for every number that can be placed in a box
+     */
+    private static final int ALL_NUMBERS = 0x3FE;
 
     /**
-     * Constructs new ClassicSudokuSolver with a 9x9 matrix
+     * Results of <code>chooseBranch</code>
+     */
+    private static final int SOLVED = 0;
+    private static final int DEAD_END = 1;
+    private static final int BRANCH_ON_BOX = 2;
+    private static final int BRANCH_ON_UNIT = 3;
+
+    /**
+     * The boxes of every row, column and three-by-three area, as indexes r * 9 + c
+     */
+    private static final int[][] UNITS = new int[27][9];
+
+    /**
+     * The number of boxes that share a row, column or three-by-three area with a box
+     */
+    private static final int PEER_COUNT = 20;
+
+    /**
+     * The boxes that share a row, column or three-by-three area with every box, as indexes r * 9 + c
+     */
+    private static final int[][] PEERS = new int[81][PEER_COUNT];
+
+    /**
+     * One random key for every box and number, at index (r * 9 + c) * 10 + nbr. The Zobrist hash of a grid
+     * is the exclusive or of the keys of all numbers in it.
+     */
+    private static final long[] ZOBRIST_KEYS = new SplittableRandom(0x5D0C0DE5L).longs(810).toArray();
+
+    static {
+        for (int index = 0; index < 9; index++) {
+            for (int i = 0; i < 9; i++) {
+                UNITS[index][i] = index * 9 + i;
+                UNITS[9 + index][i] = i * 9 + index;
+                UNITS[18 + index][i] = ((index / 3) * 3 + i / 3) * 9 + (index % 3) * 3 + i % 3;
+            }
+        }
+        for (int i = 0; i < 81; i++) {
+            int k = 0;
+            for (int j = 0; j < 81; j++) {
+                if (j != i && (j / 9 == i / 9 || j % 9 == i % 9
+                        || (j / 27 == i / 27 && (j % 9) / 3 == (i % 9) / 3))) {
+                    PEERS[i][k++] = j;
+                }
+            }
+        }
+    }
+
+    private final SearchStrategy strategy;
+    private final byte[] cells;
+    private final int[] rowMasks;
+    private final int[] colMasks;
+    private final int[] boxMasks;
+    private final byte[] rowCounts;
+    private final byte[] colCounts;
+    private final byte[] boxCounts;
+    private int duplicates;
+    private final int[] eliminated;
+    private final int[] eliminationTrail;
+    private int eliminationTrailSize;
+    private final int[] deductionTrail;
+    private int deductionTrailSize;
+    private final SearchStats stats;
+    private SearchListener listener;
+    private BooleanSupplier cancellationCheck;
+    private final byte[] searchStart;
+    private int branchIndex;
+    private int branchOptions;
+    private int branchNumber;
+    private long hash;
+    private NogoodCache nogoods;
+
+    /**
+     * Constructs new ClassicSudokuSolver with a 9x9 matrix, solving in row-major order
      */
     public ClassicSudokuSolver() {
-        sudokuMatrix = new int[9][9];
+        this(SearchStrategy.ROW_MAJOR);
+    }
+
+    /**
+     * Constructs new ClassicSudokuSolver with a 9x9 matrix, solving with the given strategy.
+     * A sudoku with a unique solution gets the same answer under every strategy.
+     *
+     * @param strategy the order in which empty boxes are visited by <code>solve</code>
+     * @throws IllegalArgumentException if strategy is null
+     */
+    public ClassicSudokuSolver(SearchStrategy strategy) {
+        if (strategy == null) {
+            throw new IllegalArgumentException("strategy is null");
+        }
+        this.strategy = strategy;
+        cells = new byte[81];
+        rowMasks = new int[9];
+        colMasks = new int[9];
+        boxMasks = new int[9];
+        rowCounts = new byte[90];
+        colCounts = new byte[90];
+        boxCounts = new byte[90];
+        eliminated = new int[81];
+        eliminationTrail = new int[729];
+        deductionTrail = new int[81];
+        stats = new SearchStats();
+        searchStart = new byte[81];
     }
 
     /**
@@ -32,7 +138,8 @@ public class ClassicSudokuSolver implements SudokuSolver {
         } else if (r < 0 || r > 8 || c < 0 || c > 8) {
             throw new IllegalArgumentException("r or c are outside of the dimension");
         } else {
-            sudokuMatrix[r][c] = nbr;
+            remove(r, c);
+            place(r, c, nbr);
         }
     }
 
@@ -48,7 +155,7 @@ public class ClassicSudokuSolver implements SudokuSolver {
         if (r < 0 || r > 8 || c < 0 || c > 8) {
             throw new IllegalArgumentException("r or c are outside of the dimension");
         } else {
-            return sudokuMatrix[r][c];
+            return cells[r * 9 + c];
         }
     }
 
@@ -63,12 +170,13 @@ public class ClassicSudokuSolver implements SudokuSolver {
         if (r < 0 || r > 8 || c < 0 || c > 8) {
             throw new IllegalArgumentException("r or c are outside of the dimension");
         } else {
-            sudokuMatrix[r][c] = 0;
+            remove(r, c);
         }
     }
 
     /**
-     * Checks if value nbr is valid in box r,c
+     * Checks if value nbr is valid in box r,c, that is if no other box in the same row, column
+     * or three-by-three area contains nbr. The grid is not modified.
      *
      * @param r   The row
      * @param c   The column
@@ -81,13 +189,14 @@ public class ClassicSudokuSolver implements SudokuSolver {
             throw new IllegalArgumentException("Number is not between 1 and 9");
         } else if (r < 0 || r > 8 || c < 0 || c > 8) {
             throw new IllegalArgumentException("r or c are outside of the dimension");
+        } else if (isEmpty(r, c)) {
+            return (freeNumbers(r, c) & (1 << nbr)) != 0;
         } else {
-            setNumber(r, c, nbr);
-            int[] row = getRow(r);
-            int[] col = getCol(c);
-            int[] threeByThree = getThreeByThreeAsArray(getThreeByThreeIndex(r, c));
-            clearNumber(r, c);
-            return !checkForDuplicates(row) && !checkForDuplicates(col) && !checkForDuplicates(threeByThree);
+            int own = cells[r * 9 + c] == nbr ? 1 : 0;
+            int b = getThreeByThreeIndex(r, c);
+            return rowCounts[r * 10 + nbr] == own
+                    && colCounts[c * 10 + nbr] == own
+                    && boxCounts[b * 10 + nbr] == own;
         }
     }
 
@@ -97,34 +206,230 @@ public class ClassicSudokuSolver implements SudokuSolver {
      * @return true if all values are valid, false if any value is not valid
      */
     public boolean isAllValid() {
-        for (int index = 0; index < 9; index++) {
-            if (checkForDuplicates(getRow(index))) {
-                return false;
-            } else if (checkForDuplicates(getCol(index))) {
-                return false;
-            } else if (checkForDuplicates(getThreeByThreeAsArray(index))) {
-                return false;
-            }
+        return duplicates == 0;
+    }
+
+    /**
+     * Checks if the number in box r,c is also present in its row, column or three-by-three area.
+     * Runs in constant time.
+     *
+     * @param r The row
+     * @param c The column
+     * @return true if box r,c is not empty and conflicts with another box, false if not
+     * @throws IllegalArgumentException if r or c is outside [0..8]
+     */
+    public boolean isConflicting(int r, int c) {
+        if (r < 0 || r > 8 || c < 0 || c > 8) {
+            throw new IllegalArgumentException("r or c are outside of the dimension");
         }
-        return true;
+        return isConflicting(r * 9 + c);
+    }
+
+    /**
+     * Returns the numbers that can still be placed in box r,c, that is the numbers not present in its row,
+     * column or three-by-three area. The unit masks are kept up to date on every change, so this runs in
+     * constant time.
+     *
+     * @param r The row
+     * @param c The column
+     * @return bitmask where bit nbr is set if nbr is valid in box r,c, or 0 if the box is not empty
+     * @throws IllegalArgumentException if r or c is outside [0..8]
+     */
+    public int getCandidates(int r, int c) {
+        if (r < 0 || r > 8 || c < 0 || c > 8) {
+            throw new IllegalArgumentException("r or c are outside of the dimension");
+        }
+        return isEmpty(r, c) ? freeNumbers(r, c) : 0;
+    }
+
+    /**
+     * Copies the candidates of every box row by row into dst, as returned by <code>getCandidates</code>.
+     * Nothing is allocated, so a caller can reuse one array for many grids.
+     *
+     * @param dst the array to copy the 81 bitmasks to
+     * @throws IllegalArgumentException if dst has fewer than 81 elements
+     */
+    public void getAllCandidates(short[] dst) {
+        if (dst.length < 81) {
+            throw new IllegalArgumentException("dst has no room for 81 bitmasks");
+        }
+        for (int i = 0; i < 81; i++) {
+            dst[i] = (short) (cells[i] == 0 ? freeNumbers(i / 9, i % 9) : 0);
+        }
+    }
+
+    /**
+     * Sets the number nbr in box r,c, or clears the box if nbr is 0, and reports every box that started
+     * or stopped conflicting with another box because of the edit. Only box r,c and the boxes sharing a
+     * unit with it can change, so this runs in constant time however many boxes are filled in.
+     * Use <code>isConflicting</code> to tell which of the reported boxes are in conflict now.
+     *
+     * @param r       The row
+     * @param c       The column
+     * @param nbr     The number to insert in box r,c, or 0 to clear it
+     * @param changed array receiving the indexes r * 9 + c of the boxes whose conflict state changed,
+     *                with room for at least 21 indexes
+     * @return the number of indexes written to changed
+     * @throws IllegalArgumentException if r or c is outside [0..8], nbr is outside [0..9] or changed is too short
+     */
+    public int edit(int r, int c, int nbr, int[] changed) {
+        if (nbr > 9 || nbr < 0) {
+            throw new IllegalArgumentException("Number is not between 0 and 9");
+        } else if (r < 0 || r > 8 || c < 0 || c > 8) {
+            throw new IllegalArgumentException("r or c are outside of the dimension");
+        } else if (changed.length < PEER_COUNT + 1) {
+            throw new IllegalArgumentException("changed has no room for " + (PEER_COUNT + 1) + " indexes");
+        }
+        int i = r * 9 + c;
+        int before = conflictsAround(i);
+        remove(r, c);
+        if (nbr != 0) {
+            place(r, c, nbr);
+        }
+        int diff = before ^ conflictsAround(i);
+        int count = 0;
+        while (diff != 0) {
+            int k = Integer.numberOfTrailingZeros(diff);
+            diff &= diff - 1;
+            changed[count++] = k == PEER_COUNT ? i : PEERS[i][k];
+        }
+        return count;
     }
 
     /**
      * Tries to solve the sudoku.
      *
      * @return true if it was solved, false if not solvable
+     * @throws CancellationException if the cancellation check returned true. The grid is restored first.
      */
     public boolean solve() {
-        return solve(0, 0);
+        long start = startSearch();
+        boolean solved;
+        try {
+            if (!isAllValid() || hasContradiction()) {
+                solved = false;
+            } else if (strategy == SearchStrategy.MOST_CONSTRAINED) {
+                solved = solveMostConstrained();
+            } else if (strategy == SearchStrategy.DEDUCTION) {
+                solved = solveWithDeduction();
+                Arrays.fill(eliminated, 0);
+                eliminationTrailSize = 0;
+                deductionTrailSize = 0;
+            } else {
+                solved = solve(0, 0);
+            }
+        } catch (CancellationException e) {
+            restoreSearchStart();
+            throw e;
+        }
+        finishSearch(start, solved ? 1 : 0);
+        return solved;
+    }
+
+    /**
+     * Counts the solutions of the sudoku, stopping as soon as limit solutions have been found.
+     * The grid is left unchanged. Counting always visits the most constrained box first,
+     * whatever strategy the solver was constructed with.
+     *
+     * @param limit the maximum number of solutions to count
+     * @return the number of solutions, at most limit
+     * @throws IllegalArgumentException if limit is less than 1
+     * @throws CancellationException    if the cancellation check returned true. The grid is restored first.
+     */
+    public int countSolutions(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit is less than 1");
+        }
+        long start = startSearch();
+        int found;
+        try {
+            found = isAllValid() && !hasContradiction() ? countSolutionsFrom(limit) : 0;
+        } catch (CancellationException e) {
+            restoreSearchStart();
+            throw e;
+        }
+        finishSearch(start, found);
+        return found;
+    }
+
+    /**
+     * Returns how many numbers the last call to <code>solve</code> filled in by deduction, including
+     * deductions that were later undone because a guess turned out wrong.
+     * Only the <code>DEDUCTION</code> strategy deduces numbers.
+     *
+     * @return the number of deduced numbers
+     */
+    public long getDeducedCount() {
+        return stats.getDeduced();
+    }
+
+    /**
+     * Returns how many numbers the last call to <code>solve</code> tried by guessing, including
+     * guesses that were later undone.
+     *
+     * @return the number of guessed numbers
+     */
+    public long getGuessedCount() {
+        return stats.getGuesses();
+    }
+
+    /**
+     * Returns the effort of the last call to <code>solve</code> or <code>countSolutions</code>.
+     * The object is overwritten by the next search.
+     *
+     * @return the search effort
+     */
+    public SearchStats getSearchStats() {
+        return stats;
+    }
+
+    /**
+     * Registers a listener that is notified after every call to <code>solve</code> and
+     * <code>countSolutions</code>. Wall time is only measured while a listener is registered.
+     *
+     * @param listener the listener, or null to remove the current one
+     */
+    public void setSearchListener(SearchListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Sets a condition that is polled regularly while searching. As soon as it returns true, the search
+     * stops, the grid is restored to what it was before the search, and a <code>CancellationException</code>
+     * is thrown.
+     *
+     * @param cancellationCheck the condition, or null to never cancel
+     */
+    public void setCancellationCheck(BooleanSupplier cancellationCheck) {
+        this.cancellationCheck = cancellationCheck;
+    }
+
+    /**
+     * Sets a table of grids known to have no solution. While searching, every branch point with at most
+     * <code>NogoodCache.getMaxDepth</code> guesses in place looks up the grid first and gives up if it is
+     * stored, and such a branch point is stored once all its options failed. One search never reaches the
+     * same grid twice, so branches are only pruned when the table is kept between searches.
+     * <code>SearchStats.getPruned</code> reports how often it helped in one search.
+     *
+     * @param nogoods the table, or null to search without one, which is the default
+     */
+    public void setNogoodCache(NogoodCache nogoods) {
+        this.nogoods = nogoods;
     }
 
     /**
      * Clears the sudoku.
      */
     public void clear() {
-        for (int[] row : sudokuMatrix) {
-            Arrays.fill(row, 0);
-        }
+        Arrays.fill(cells, (byte) 0);
+        Arrays.fill(rowMasks, 0);
+        Arrays.fill(colMasks, 0);
+        Arrays.fill(boxMasks, 0);
+        Arrays.fill(rowCounts, (byte) 0);
+        Arrays.fill(colCounts, (byte) 0);
+        Arrays.fill(boxCounts, (byte) 0);
+        duplicates = 0;
+        hash = 0;
     }
 
     /**
@@ -134,30 +439,123 @@ public class ClassicSudokuSolver implements SudokuSolver {
      * @return the numbers in the grid
      */
     public int[][] getMatrix() {
-        return Arrays.stream(sudokuMatrix).map(int[]::clone).toArray(int[][]::new);
+        int[][] matrix = new int[9][9];
+        for (int r = 0; r < 9; r++) {
+            for (int c = 0; c < 9; c++) {
+                matrix[r][c] = cells[r * 9 + c];
+            }
+        }
+        return matrix;
     }
 
     /**
-     * Fills the grid with the numbers in nbrs.
+     * Fills the grid with the numbers in nbrs. The grid is left unchanged if nbrs is rejected.
      *
      * @param nbrs the matrix with the numbers to insert
      * @throws IllegalArgumentException if nbrs have wrong dimension or containing values not in [0..9]
      */
     public void setMatrix(int[][] nbrs) {
-        if (nbrs.length != 9 || nbrs[0].length != 9) {
+        if (nbrs.length != 9) {
             throw new IllegalArgumentException("nbrs has wrong dimension");
         }
+        for (int[] row : nbrs) {
+            if (row.length != 9) {
+                throw new IllegalArgumentException("nbrs has wrong dimension");
+            }
+            for (int nbr : row) {
+                if (nbr > 9 || nbr < 0) {
+                    throw new IllegalArgumentException("Value is not in [0..9]");
+                }
+            }
+        }
+        clear();
         for (int i = 0; i < 9; i++) {
             for (int j = 0; j < 9; j++) {
-                if (nbrs[i][j] > 9 || nbrs[i][j] < 0) {
-                    throw new IllegalArgumentException("Value is not in [0..9]");
-                } else {
-                    sudokuMatrix[i][j] = nbrs[i][j];
+                if (nbrs[i][j] != 0) {
+                    place(i, j, nbrs[i][j]);
                 }
             }
         }
     }
 
+    /**
+     * Copies the numbers in the grid row by row into dst, starting at offset. An empty box is
+     * represented by the value 0.
+     *
+     * @param dst    the array to copy the 81 numbers to
+     * @param offset the index in dst of the number in box 0,0
+     * @throws IllegalArgumentException if the 81 numbers do not fit in dst at offset
+     */
+    public void getCells(byte[] dst, int offset) {
+        if (offset < 0 || offset > dst.length - 81) {
+            throw new IllegalArgumentException("dst has no room for 81 numbers at offset");
+        }
+        System.arraycopy(cells, 0, dst, offset, 81);
+    }
+
+    /**
+     * Fills the grid row by row with the 81 numbers in src starting at offset. The grid is left
+     * unchanged if src is rejected.
+     *
+     * @param src    the array with the numbers to insert, 0 for an empty box
+     * @param offset the index in src of the number for box 0,0
+     * @throws IllegalArgumentException if src has fewer than 81 numbers at offset or contains values not in [0..9]
+     */
+    public void setCells(byte[] src, int offset) {
+        if (offset < 0 || offset > src.length - 81) {
+            throw new IllegalArgumentException("src has fewer than 81 numbers at offset");
+        }
+        for (int i = offset; i < offset + 81; i++) {
+            if (src[i] > 9 || src[i] < 0) {
+                throw new IllegalArgumentException("Value is not in [0..9]");
+            }
+        }
+        clear();
+        for (int i = 0; i < 81; i++) {
+            if (src[offset + i] != 0) {
+                place(i / 9, i % 9, src[offset + i]);
+            }
+        }
+    }
+
+    /**
+     * Private helpmethod resetting the search statistics before a search
+     *
+     * @return the start time in nanoseconds if a listener is registered, otherwise 0
+     */
+    private long startSearch() {
+        if (cancellationCheck != null && cancellationCheck.getAsBoolean()) {
+            throw new CancellationException("Search was cancelled");
+        }
+        stats.reset();
+        System.arraycopy(cells, 0, searchStart, 0, 81);
+        return listener != null ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Private helpmethod restoring the grid to what it was when the current search started
+     */
+    private void restoreSearchStart() {
+        Arrays.fill(eliminated, 0);
+        eliminationTrailSize = 0;
+        deductionTrailSize = 0;
+        setCells(searchStart, 0);
+    }
+
+    /**
+     * Private helpmethod completing the search statistics after a search and notifying the listener
+     *
+     * @param start     the value returned by <code>startSearch</code>
+     * @param solutions the number of solutions found
+     */
+    private void finishSearch(long start, int solutions) {
+        stats.solutions = solutions;
+        if (listener != null) {
+            stats.nanos = System.nanoTime() - start;
+            listener.searchFinished(stats);
+        }
+    }
+
     /**
      * Recursive private helpmethod for solving the sudoko
      *
@@ -178,170 +576,739 @@ public class ClassicSudokuSolver implements SudokuSolver {
         if (!isEmpty(r, c))
             return solve(r, c + 1);
 
-        for (int nbr = 1; nbr <= 9; nbr++) {
-            if (isValid(r, c, nbr)) {
-                setNumber(r, c, nbr);
-                if (solve(r, c + 1))
-                    return true;
-            }
-            clearNumber(r, c);
+        stats.visitNode(cancellationCheck);
+        if (isKnownDeadEnd()) {
+            return false;
+        }
+        int free = candidates(r, c);
+        while (free != 0) {
+            int nbr = Integer.numberOfTrailingZeros(free);
+            free &= free - 1;
+            stats.guess();
+            place(r, c, nbr);
+            if (forwardCheckRowMajor(r, c) && solve(r, c + 1))
+                return true;
+            remove(r, c);
+            stats.backtrack();
         }
+        addDeadEnd();
         return false;
     }
 
     /**
-     * Private helpmethod to check if a box r,c is empty (= 0)
+     * Recursive private helpmethod for solving the sudoku, always branching on the empty box or the
+     * missing number of a unit with the fewest valid options next
      *
-     * @param r the row
-     * @param c the column
-     * @return true if box is empty, otherwise false
+     * @return true if the recursive solve was successful
      */
-    private boolean isEmpty(int r, int c) {
-        return sudokuMatrix[r][c] == 0;
+    private boolean solveMostConstrained() {
+        stats.visitNode(cancellationCheck);
+        if (isKnownDeadEnd()) {
+            return false;
+        }
+        int branch = chooseBranch();
+        if (branch != BRANCH_ON_BOX && branch != BRANCH_ON_UNIT) {
+            return branch == SOLVED;
+        }
+        int index = branchIndex;
+        int options = branchOptions;
+        int unitNbr = branchNumber;
+
+        while (options != 0) {
+            int option = Integer.numberOfTrailingZeros(options);
+            options &= options - 1;
+            int box = branch == BRANCH_ON_BOX ? index : UNITS[index][option];
+            int nbr = branch == BRANCH_ON_BOX ? option : unitNbr;
+            stats.guess();
+            place(box / 9, box % 9, nbr);
+            if (forwardCheck(box / 9, box % 9, nbr) && solveMostConstrained())
+                return true;
+            remove(box / 9, box % 9);
+            stats.backtrack();
+        }
+        addDeadEnd();
+        return false;
     }
 
     /**
-     * Returns range in rows and columns for a three-by-three sudoku area by index.
-     * Indexes are numbered [0..8] from top left to bottom right.
+     * Private helpmethod looking up the current grid in the nogood cache, if it is shallow enough to be stored
      *
-     * @param index the index of the three-by-three area
-     * @return range as [r1, r2, c1, c2]
-     */
-    private int[] getRange(int index) {
-        int[] range = new int[4];
-        switch (index) {
-            case 0:
-                range[0] = 0;
-                range[1] = 2;
-                range[2] = 0;
-                range[3] = 2;
-                break;
-            case 1:
-                range[0] = 0;
-                range[1] = 2;
-                range[2] = 3;
-                range[3] = 5;
-                break;
-            case 2:
-                range[0] = 0;
-                range[1] = 2;
-                range[2] = 6;
-                range[3] = 8;
-                break;
-            case 3:
-                range[0] = 3;
-                range[1] = 5;
-                range[2] = 0;
-                range[3] = 2;
-                break;
-            case 4:
-                range[0] = 3;
-                range[1] = 5;
-                range[2] = 3;
-                range[3] = 5;
-                break;
-            case 5:
-                range[0] = 3;
-                range[1] = 5;
-                range[2] = 6;
-                range[3] = 8;
-                break;
-            case 6:
-                range[0] = 6;
-                range[1] = 8;
-                range[2] = 0;
-                range[3] = 2;
-                break;
-            case 7:
-                range[0] = 6;
-                range[1] = 8;
-                range[2] = 3;
-                range[3] = 5;
-                break;
-            case 8:
-                range[0] = 6;
-                range[1] = 8;
-                range[2] = 6;
-                range[3] = 8;
-                break;
-            default:
-                break;
-        }
-        return range;
+     * @return true if the grid is known to have no solution
+     */
+    private boolean isKnownDeadEnd() {
+        if (nogoods != null && stats.depth <= nogoods.getMaxDepth() && nogoods.contains(hash)) {
+            stats.pruned++;
+            return true;
+        }
+        return false;
     }
 
     /**
-     * Private helpmethod to get the three by three area index for a box r,c
+     * Private helpmethod storing the current grid in the nogood cache after all options of a branch
+     * point failed, if it is shallow enough. The grid must be back to what it was when the branch point
+     * was reached.
+     */
+    private void addDeadEnd() {
+        if (nogoods != null && stats.depth <= nogoods.getMaxDepth()) {
+            nogoods.add(hash);
+        }
+    }
+
+    /**
+     * Private helpmethod choosing what to branch on next: the empty box with the fewest valid numbers, or,
+     * if that is fewer, the unit and missing number with the fewest valid boxes. The choice is stored in
+     * branchIndex, branchOptions and branchNumber. <code>GeneralSudokuSolver</code> has the same rule for
+     * <code>long</code> masks, see its class comment for why it is kept twice.
+     *
+     * @return SOLVED if there is no empty box, DEAD_END if a box or a missing number has no valid option left,
+     * otherwise BRANCH_ON_BOX or BRANCH_ON_UNIT
+     */
+    private int chooseBranch() {
+        int best = -1;
+        int bestFree = 0;
+        int bestCount = 10;
+        for (int i = 0; i < 81 && bestCount > 1; i++) {
+            if (cells[i] == 0) {
+                int free = candidates(i / 9, i % 9);
+                int count = Integer.bitCount(free);
+                if (count < bestCount) {
+                    if (count == 0) {
+                        return DEAD_END;
+                    }
+                    best = i;
+                    bestFree = free;
+                    bestCount = count;
+                }
+            }
+        }
+        if (best < 0) {
+            return SOLVED;
+        }
+        branchIndex = best;
+        branchOptions = bestFree;
+        if (bestCount == 1) {
+            return BRANCH_ON_BOX;
+        }
+
+        int branch = BRANCH_ON_BOX;
+        for (int u = 0; u < 27; u++) {
+            int once = 0;
+            int twice = 0;
+            int more = 0;
+            for (int i : UNITS[u]) {
+                if (cells[i] == 0) {
+                    int free = candidates(i / 9, i % 9);
+                    more |= twice & free;
+                    twice |= once & free;
+                    once |= free;
+                }
+            }
+            int missing = ~unitMask(u) & ALL_NUMBERS;
+            if ((missing & ~once) != 0) {
+                return DEAD_END;
+            }
+            int single = missing & once & ~twice;
+            int pair = missing & twice & ~more;
+            if (single != 0 || (pair != 0 && bestCount > 2 && branch == BRANCH_ON_BOX)) {
+                int nbr = Integer.numberOfTrailingZeros(single != 0 ? single : pair);
+                int positions = 0;
+                for (int k = 0; k < 9; k++) {
+                    int i = UNITS[u][k];
+                    if (cells[i] == 0 && (candidates(i / 9, i % 9) & (1 << nbr)) != 0) {
+                        positions |= 1 << k;
+                    }
+                }
+                branchIndex = u;
+                branchOptions = positions;
+                branchNumber = nbr;
+                branch = BRANCH_ON_UNIT;
+                if (single != 0) {
+                    return branch;
+                }
+            }
+        }
+        return branch;
+    }
+
+    /**
+     * Private helpmethod checking the grid for contradictions that make it unsolvable without searching:
+     * an empty box without any valid number, or a unit where a missing number has no valid box left
+     *
+     * @return true if the grid has a contradiction
+     */
+    private boolean hasContradiction() {
+        for (int i = 0; i < 81; i++) {
+            if (cells[i] == 0 && candidates(i / 9, i % 9) == 0) {
+                return true;
+            }
+        }
+        for (int u = 0; u < 27; u++) {
+            if (!isUnitCovered(u)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Private helpmethod checking, after nbr was placed in box r,c, that the placement did not leave a
+     * contradiction behind. Only the boxes and units that lost a candidate are checked: the empty boxes that
+     * share a unit with r,c, the units of r,c, and every unit that can no longer use box r,c or its peers for nbr.
+     *
+     * @param r   the row
+     * @param c   the column
+     * @param nbr the number placed
+     * @return false if an empty box has no valid number left or a unit has no valid box left for a missing number
+     */
+    private boolean forwardCheck(int r, int c, int nbr) {
+        int b = getThreeByThreeIndex(r, c);
+        int bit = 1 << nbr;
+        for (int i = 0; i < 9; i++) {
+            int br = (b / 3) * 3 + i / 3;
+            int bc = (b % 3) * 3 + i % 3;
+            if ((cells[r * 9 + i] == 0 && candidates(r, i) == 0)
+                    || (cells[i * 9 + c] == 0 && candidates(i, c) == 0)
+                    || (cells[br * 9 + bc] == 0 && candidates(br, bc) == 0)) {
+                return false;
+            }
+        }
+        if (!isUnitCovered(r) || !isUnitCovered(9 + c) || !isUnitCovered(18 + b)) {
+            return false;
+        }
+        for (int i = 0; i < 9; i++) {
+            if ((i != r && (rowMasks[i] & bit) == 0 && !hasPlace(UNITS[i], bit))
+                    || (i != c && (colMasks[i] & bit) == 0 && !hasPlace(UNITS[9 + i], bit))
+                    || (i != b && (i / 3 == b / 3 || i % 3 == b % 3) && (boxMasks[i] & bit) == 0
+                    && !hasPlace(UNITS[18 + i], bit))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Private helpmethod checking, after a number was placed in box r,c by the row-major search, that the
+     * units of r,c can still be completed. Every box before r,c is filled, so only the empty boxes after it
+     * are looked at: each must have a valid number left, and together with the unit they must cover all numbers.
+     * Units that only lost the number in a peer are not checked, which keeps this cheap enough for the many
+     * small nodes of a row-major search.
      *
      * @param r the row
      * @param c the column
-     * @return index for three by three area box r,c is in
+     * @return false if an empty box has no valid number left or a unit of r,c has no valid box left for a
+     * missing number
      */
-    private int getThreeByThreeIndex(int r, int c) {
-        return (c / 3 + (r / 3) * 3);
+    private boolean forwardCheckRowMajor(int r, int c) {
+        int covered = rowMasks[r];
+        for (int k = c + 1; k < 9; k++) {
+            if (cells[r * 9 + k] == 0) {
+                int free = candidates(r, k);
+                if (free == 0) {
+                    return false;
+                }
+                covered |= free;
+            }
+        }
+        if (covered != ALL_NUMBERS) {
+            return false;
+        }
+        covered = colMasks[c];
+        for (int k = r + 1; k < 9; k++) {
+            if (cells[k * 9 + c] == 0) {
+                int free = candidates(k, c);
+                if (free == 0) {
+                    return false;
+                }
+                covered |= free;
+            }
+        }
+        if (covered != ALL_NUMBERS) {
+            return false;
+        }
+        int b = getThreeByThreeIndex(r, c);
+        covered = boxMasks[b];
+        for (int br = r; br < (b / 3) * 3 + 3; br++) {
+            for (int bc = (b % 3) * 3; bc < (b % 3) * 3 + 3; bc++) {
+                if (cells[br * 9 + bc] == 0) {
+                    int free = candidates(br, bc);
+                    if (free == 0) {
+                        return false;
+                    }
+                    covered |= free;
+                }
+            }
+        }
+        return covered == ALL_NUMBERS;
     }
 
     /**
-     * Private helpmethod to check for duplicates in an array
+     * Private helpmethod checking that every number missing in a unit is still valid in one of its empty boxes
      *
-     * @param array the array to check
-     * @return true if duplicates exist, false if not
+     * @param u index in UNITS of the unit
+     * @return true if every missing number has a valid box left
      */
-    private boolean checkForDuplicates(int[] array) {
-        Set<Integer> set = new HashSet<>();
+    private boolean isUnitCovered(int u) {
+        int covered = unitMask(u);
+        for (int i : UNITS[u]) {
+            if (cells[i] == 0) {
+                covered |= candidates(i / 9, i % 9);
+            }
+        }
+        return covered == ALL_NUMBERS;
+    }
 
-        for (int nbr : array) {
-            if (nbr != 0 && set.contains(nbr)) {
+    /**
+     * Private helpmethod checking if a number is valid in any empty box of a unit
+     *
+     * @param unit the boxes of the unit
+     * @param bit  the number, as a bitmask with bit nbr set
+     * @return true if the number is valid in at least one empty box
+     */
+    private boolean hasPlace(int[] unit, int bit) {
+        for (int i : unit) {
+            if (cells[i] == 0 && (candidates(i / 9, i % 9) & bit) != 0) {
                 return true;
             }
+        }
+        return false;
+    }
+
+    /**
+     * Recursive private helpmethod counting the solutions reachable from the current grid, branching on the
+     * empty box or the missing number of a unit with the fewest valid options next. Every number placed is
+     * removed again.
+     *
+     * @param limit the maximum number of solutions to count
+     * @return the number of solutions, at most limit
+     */
+    private int countSolutionsFrom(int limit) {
+        stats.visitNode(cancellationCheck);
+        if (isKnownDeadEnd()) {
+            return 0;
+        }
+        int branch = chooseBranch();
+        if (branch != BRANCH_ON_BOX && branch != BRANCH_ON_UNIT) {
+            return branch == SOLVED ? 1 : 0;
+        }
+        int index = branchIndex;
+        int options = branchOptions;
+        int unitNbr = branchNumber;
 
-            if (nbr != 0) {
-                set.add(nbr);
+        int found = 0;
+        while (options != 0 && found < limit) {
+            int option = Integer.numberOfTrailingZeros(options);
+            options &= options - 1;
+            int box = branch == BRANCH_ON_BOX ? index : UNITS[index][option];
+            int nbr = branch == BRANCH_ON_BOX ? option : unitNbr;
+            stats.guess();
+            place(box / 9, box % 9, nbr);
+            if (forwardCheck(box / 9, box % 9, nbr)) {
+                found += countSolutionsFrom(limit - found);
             }
+            remove(box / 9, box % 9);
+            stats.backtrack();
         }
+        if (found == 0) {
+            addDeadEnd();
+        }
+        return found;
+    }
+
+    /**
+     * Lists the options of the branch point the most-constrained search would branch on next, without
+     * placing anything. Used to split a search into independent parts.
+     *
+     * @param boxes   array receiving, for every option, the index r * 9 + c of the box to fill, with room for 9
+     * @param numbers array receiving, for every option, the number to place, with room for 9
+     * @return the number of options, 0 if the grid is invalid or cannot be solved, or -1 if it is already complete
+     */
+    int listBranches(int[] boxes, int[] numbers) {
+        if (!isAllValid() || hasContradiction()) {
+            return 0;
+        }
+        int branch = chooseBranch();
+        if (branch == SOLVED) {
+            return -1;
+        } else if (branch == DEAD_END) {
+            return 0;
+        }
+        int options = branchOptions;
+        int count = 0;
+        while (options != 0) {
+            int option = Integer.numberOfTrailingZeros(options);
+            options &= options - 1;
+            boxes[count] = branch == BRANCH_ON_BOX ? branchIndex : UNITS[branchIndex][option];
+            numbers[count++] = branch == BRANCH_ON_BOX ? option : branchNumber;
+        }
+        return count;
+    }
 
+    /**
+     * Recursive private helpmethod for solving the sudoku. Deduces as many numbers as possible
+     * before guessing in the box with the fewest valid numbers, and deduces again after every guess.
+     * Everything placed or eliminated by a failed call is undone before it returns.
+     *
+     * @return true if the recursive solve was successful
+     */
+    private boolean solveWithDeduction() {
+        stats.visitNode(cancellationCheck);
+        if (isKnownDeadEnd()) {
+            return false;
+        }
+        int deductionMark = deductionTrailSize;
+        int eliminationMark = eliminationTrailSize;
+        if (!deduce()) {
+            undoDeductions(deductionMark, eliminationMark);
+            return false;
+        }
+
+        int branch = chooseBranch();
+        if (branch == SOLVED) {
+            return true;
+        }
+        int index = branchIndex;
+        int options = branch == DEAD_END ? 0 : branchOptions;
+        int unitNbr = branchNumber;
+
+        while (options != 0) {
+            int option = Integer.numberOfTrailingZeros(options);
+            options &= options - 1;
+            int box = branch == BRANCH_ON_BOX ? index : UNITS[index][option];
+            int nbr = branch == BRANCH_ON_BOX ? option : unitNbr;
+            stats.guess();
+            place(box / 9, box % 9, nbr);
+            if (solveWithDeduction())
+                return true;
+            remove(box / 9, box % 9);
+            stats.backtrack();
+        }
+        undoDeductions(deductionMark, eliminationMark);
+        if (branch != DEAD_END) {
+            addDeadEnd();
+        }
         return false;
     }
 
     /**
-     * Returns row r in sudokuMatrix as an array copied
+     * Private helpmethod filling in naked singles (a box with one valid number left) and hidden singles
+     * (a number with one valid box left in a unit), and eliminating locked candidates, until nothing more
+     * can be deduced
+     *
+     * @return false if a contradiction was found, that is a box or a unit without any valid place left
+     */
+    private boolean deduce() {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int i = 0; i < 81; i++) {
+                if (cells[i] == 0) {
+                    int free = candidates(i / 9, i % 9);
+                    if (free == 0) {
+                        return false;
+                    } else if ((free & (free - 1)) == 0) {
+                        placeDeduced(i, Integer.numberOfTrailingZeros(free));
+                        changed = true;
+                    }
+                }
+            }
+            for (int u = 0; u < 27; u++) {
+                int[] unit = UNITS[u];
+                int missing = ~unitMask(u) & ALL_NUMBERS;
+                while (missing != 0) {
+                    int nbr = Integer.numberOfTrailingZeros(missing);
+                    missing &= missing - 1;
+                    int box = -1;
+                    int boxes = 0;
+                    for (int i : unit) {
+                        if (cells[i] == 0 && (candidates(i / 9, i % 9) & (1 << nbr)) != 0) {
+                            box = i;
+                            boxes++;
+                        }
+                    }
+                    if (boxes == 0) {
+                        return false;
+                    } else if (boxes == 1) {
+                        placeDeduced(box, nbr);
+                        changed = true;
+                    }
+                }
+            }
+            if (!changed) {
+                changed = eliminateLockedCandidates();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Private helpmethod eliminating locked candidates. If a number can only go in one row or column
+     * of a three-by-three area, it is eliminated from the rest of that row or column, and if it can only
+     * go in one three-by-three area of a row or column, it is eliminated from the rest of that area.
+     *
+     * @return true if any candidate was eliminated
+     */
+    private boolean eliminateLockedCandidates() {
+        boolean changed = false;
+        for (int u = 0; u < 27; u++) {
+            int[] unit = UNITS[u];
+            int missing = ~unitMask(u) & ALL_NUMBERS;
+            while (missing != 0) {
+                int nbr = Integer.numberOfTrailingZeros(missing);
+                missing &= missing - 1;
+                int rows = 0;
+                int cols = 0;
+                int boxes = 0;
+                for (int i : unit) {
+                    if (cells[i] == 0 && (candidates(i / 9, i % 9) & (1 << nbr)) != 0) {
+                        rows |= 1 << (i / 9);
+                        cols |= 1 << (i % 9);
+                        boxes |= 1 << getThreeByThreeIndex(i / 9, i % 9);
+                    }
+                }
+                if (u >= 18) {
+                    if (Integer.bitCount(rows) == 1) {
+                        changed |= eliminateOutside(UNITS[Integer.numberOfTrailingZeros(rows)], u, nbr);
+                    }
+                    if (Integer.bitCount(cols) == 1) {
+                        changed |= eliminateOutside(UNITS[9 + Integer.numberOfTrailingZeros(cols)], u, nbr);
+                    }
+                } else if (Integer.bitCount(boxes) == 1) {
+                    changed |= eliminateOutside(UNITS[18 + Integer.numberOfTrailingZeros(boxes)], u, nbr);
+                }
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Private helpmethod eliminating nbr from the empty boxes of unit that are not part of unit keep
+     *
+     * @param unit the boxes to eliminate nbr from
+     * @param keep index in UNITS of the unit whose boxes are left untouched
+     * @param nbr  the number to eliminate
+     * @return true if nbr was eliminated from any box
+     */
+    private boolean eliminateOutside(int[] unit, int keep, int nbr) {
+        boolean changed = false;
+        for (int i : unit) {
+            int r = i / 9;
+            int c = i % 9;
+            boolean inKeep = keep < 9 ? r == keep : keep < 18 ? c == keep - 9 : getThreeByThreeIndex(r, c) == keep - 18;
+            if (!inKeep && cells[r * 9 + c] == 0 && (candidates(r, c) & (1 << nbr)) != 0) {
+                eliminationTrail[eliminationTrailSize++] = i * 1024 + eliminated[i];
+                eliminated[i] |= 1 << nbr;
+                stats.eliminations++;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Private helpmethod placing a deduced number and recording it so it can be undone
+     *
+     * @param i   the box, as r * 9 + c
+     * @param nbr the number
+     */
+    private void placeDeduced(int i, int nbr) {
+        place(i / 9, i % 9, nbr);
+        deductionTrail[deductionTrailSize++] = i;
+        stats.deduced++;
+    }
+
+    /**
+     * Private helpmethod undoing deductions and eliminations back to the given trail sizes
+     *
+     * @param deductionMark   the size of the deduction trail to go back to
+     * @param eliminationMark the size of the elimination trail to go back to
+     */
+    private void undoDeductions(int deductionMark, int eliminationMark) {
+        while (deductionTrailSize > deductionMark) {
+            int i = deductionTrail[--deductionTrailSize];
+            remove(i / 9, i % 9);
+        }
+        while (eliminationTrailSize > eliminationMark) {
+            int entry = eliminationTrail[--eliminationTrailSize];
+            eliminated[entry / 1024] = entry % 1024;
+        }
+    }
+
+    /**
+     * Private helpmethod returning the numbers used in a unit
+     *
+     * @param u index in UNITS of the unit: rows first, then columns, then three-by-three areas
+     * @return bitmask where bit nbr is set if nbr is used in the unit
+     */
+    private int unitMask(int u) {
+        if (u < 9) {
+            return rowMasks[u];
+        } else if (u < 18) {
+            return colMasks[u - 9];
+        }
+        return boxMasks[u - 18];
+    }
+
+    /**
+     * Private helpmethod checking if the number in box i is also present in one of its units
+     *
+     * @param i the box, as index r * 9 + c
+     * @return true if box i is not empty and conflicts with another box
+     */
+    private boolean isConflicting(int i) {
+        int nbr = cells[i];
+        return nbr != 0 && (rowCounts[(i / 9) * 10 + nbr] > 1 || colCounts[(i % 9) * 10 + nbr] > 1
+                || boxCounts[getThreeByThreeIndex(i / 9, i % 9) * 10 + nbr] > 1);
+    }
+
+    /**
+     * Private helpmethod collecting the conflict state of box i and its peers
+     *
+     * @param i the box, as index r * 9 + c
+     * @return bitmask where bit k is set if peer k of box i conflicts, and bit PEER_COUNT if box i does
+     */
+    private int conflictsAround(int i) {
+        int mask = isConflicting(i) ? 1 << PEER_COUNT : 0;
+        for (int k = 0; k < PEER_COUNT; k++) {
+            if (isConflicting(PEERS[i][k])) {
+                mask |= 1 << k;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Private helpmethod to check if a box r,c is empty (= 0)
      *
      * @param r the row
-     * @return the copied array
+     * @param c the column
+     * @return true if box is empty, otherwise false
      */
-    private int[] getRow(int r) {
-        int[] row = new int[9];
-        System.arraycopy(sudokuMatrix[r], 0, row, 0, 9);
-        return row;
+    private boolean isEmpty(int r, int c) {
+        return cells[r * 9 + c] == 0;
     }
 
     /**
-     * Returns column c in sudokuMatrix as an array copied
+     * Private helpmethod returning the numbers not yet used in the row, column and three-by-three
+     * area of box r,c, and not eliminated by deduction
      *
+     * @param r the row
      * @param c the column
-     * @return the copied array
+     * @return bitmask where bit nbr is set if nbr is still a candidate for box r,c
      */
-    private int[] getCol(int c) {
-        int[] col = new int[9];
-        for (int i = 0; i < 9; i++) {
-            col[i] = sudokuMatrix[i][c];
+    private int candidates(int r, int c) {
+        stats.candidateChecks++;
+        return ~(rowMasks[r] | colMasks[c] | boxMasks[getThreeByThreeIndex(r, c)] | eliminated[r * 9 + c])
+                & ALL_NUMBERS;
+    }
+
+    /**
+     * Private helpmethod returning the numbers not yet used in the row, column and three-by-three
+     * area of box r,c. Unlike <code>candidates</code> it ignores eliminations and is not counted in the statistics.
+     *
+     * @param r the row
+     * @param c the column
+     * @return bitmask where bit nbr is set if nbr is not used in any unit of box r,c
+     */
+    private int freeNumbers(int r, int c) {
+        return ~(rowMasks[r] | colMasks[c] | boxMasks[getThreeByThreeIndex(r, c)]) & ALL_NUMBERS;
+    }
+
+    /**
+     * Private helpmethod writing nbr to the empty box r,c and updating the unit masks and counters
+     *
+     * @param r   the row
+     * @param c   the column
+     * @param nbr the number, in [1..9]
+     */
+    private void place(int r, int c, int nbr) {
+        int b = getThreeByThreeIndex(r, c);
+        int bit = 1 << nbr;
+        cells[r * 9 + c] = (byte) nbr;
+        hash ^= ZOBRIST_KEYS[(r * 9 + c) * 10 + nbr];
+        rowMasks[r] |= bit;
+        colMasks[c] |= bit;
+        boxMasks[b] |= bit;
+        duplicates += increment(rowCounts, r * 10 + nbr) + increment(colCounts, c * 10 + nbr)
+                + increment(boxCounts, b * 10 + nbr);
+    }
+
+    /**
+     * Private helpmethod emptying box r,c and updating the unit masks and counters. Does nothing if the
+     * box is already empty.
+     *
+     * @param r the row
+     * @param c the column
+     */
+    private void remove(int r, int c) {
+        int nbr = cells[r * 9 + c];
+        if (nbr == 0) {
+            return;
+        }
+        int b = getThreeByThreeIndex(r, c);
+        int bit = 1 << nbr;
+        cells[r * 9 + c] = 0;
+        hash ^= ZOBRIST_KEYS[(r * 9 + c) * 10 + nbr];
+        duplicates -= decrement(rowCounts, r * 10 + nbr) + decrement(colCounts, c * 10 + nbr)
+                + decrement(boxCounts, b * 10 + nbr);
+        if (rowCounts[r * 10 + nbr] == 0) {
+            rowMasks[r] &= ~bit;
         }
-        return col;
+        if (colCounts[c * 10 + nbr] == 0) {
+            colMasks[c] &= ~bit;
+        }
+        if (boxCounts[b * 10 + nbr] == 0) {
+            boxMasks[b] &= ~bit;
+        }
+    }
+
+    /**
+     * Increments a unit counter
+     *
+     * @param counts the counters of a unit type
+     * @param index  the counter to increment
+     * @return 1 if the number was already present in the unit, otherwise 0
+     */
+    private static int increment(byte[] counts, int index) {
+        return counts[index]++ > 0 ? 1 : 0;
+    }
+
+    /**
+     * Decrements a unit counter
+     *
+     * @param counts the counters of a unit type
+     * @param index  the counter to decrement
+     * @return 1 if the number is still present in the unit, otherwise 0
+     */
+    private static int decrement(byte[] counts, int index) {
+        return --counts[index] > 0 ? 1 : 0;
     }
 
     /**
-     * Returns three-by-three area in sudokuMatrix by index as an array copied
+     * Private helpmethod to get the three by three area index for a box r,c
+     *
+     * @param r the row
+     * @param c the column
+     * @return index for three by three area box r,c is in
+     */
+    private int getThreeByThreeIndex(int r, int c) {
+        return (c / 3 + (r / 3) * 3);
+    }
+
+    /**
+     * Returns three-by-three area in the grid by index as an array copied.
+     * Indexes are numbered [0..8] from top left to bottom right.
      *
      * @param index the index of the three-by-three area
      * @return the copied array
      */
-    private int[] getThreeByThreeAsArray(int index) {
+    int[] getThreeByThreeAsArray(int index) {
         int[] threeByThree = new int[9];
-        int[] ranges = getRange(index);
+        int r0 = (index / 3) * 3;
+        int c0 = (index % 3) * 3;
         int i = 0;
-        for (int r = ranges[0]; r <= ranges[1]; r++) {
-            for (int c = ranges[2]; c <= ranges[3]; c++) {
-                threeByThree[i] = sudokuMatrix[r][c];
+        for (int r = r0; r < r0 + 3; r++) {
+            for (int c = c0; c < c0 + 3; c++) {
+                threeByThree[i] = cells[r * 9 + c];
                 i++;
             }
         }
@@ -4,6 +4,8 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -115,6 +117,29 @@ class ClassicSudokuSolverTest {
         assertFalse(isAllValid);
     }
 
+    @Test
+    void testIsValidOnFilledBox() {
+        solver.setNumber(0, 0, 1);
+        solver.setNumber(0, 8, 2);
+        assertTrue(solver.isValid(0, 0, 1));
+        assertFalse(solver.isValid(0, 0, 2));
+        assertTrue(solver.isValid(0, 0, 3));
+        assertEquals(solver.getNumber(0, 0), 1);
+    }
+
+    @Test
+    void testIsAllValidAfterClearingDuplicate() {
+        solver.setNumber(0, 0, 5);
+        solver.setNumber(0, 5, 5);
+        assertFalse(solver.isAllValid());
+        assertFalse(solver.isValid(0, 3, 5));
+        solver.clearNumber(0, 5);
+        assertTrue(solver.isAllValid());
+        assertFalse(solver.isValid(0, 3, 5));
+        solver.clearNumber(0, 0);
+        assertTrue(solver.isValid(0, 3, 5));
+    }
+
     @Test
     void testClear() {
         int[][] matrixStart = {
@@ -159,6 +184,27 @@ class ClassicSudokuSolverTest {
         }
     }
 
+    @Test
+    void testGetAndSetCells() {
+        byte[] buffer = new byte[100];
+        for (int i = 0; i < 81; i++) {
+            buffer[10 + i] = (byte) ((i * 7) % 10);
+        }
+        solver.setCells(buffer, 10);
+        assertEquals(solver.getNumber(0, 1), 7);
+        assertEquals(solver.getNumber(8, 8), 0);
+        byte[] cells = new byte[81];
+        solver.getCells(cells, 0);
+        for (int i = 0; i < 81; i++) {
+            assertEquals(cells[i], buffer[10 + i]);
+        }
+        assertThrows(IllegalArgumentException.class, () -> solver.setCells(buffer, 20));
+        assertThrows(IllegalArgumentException.class, () -> solver.getCells(new byte[80], 0));
+        buffer[10] = 10;
+        assertThrows(IllegalArgumentException.class, () -> solver.setCells(buffer, 10));
+        assertEquals(solver.getNumber(0, 1), 7);
+    }
+
     @Test
     void testEmptySudoku() {
         solver.solve();
@@ -327,4 +373,223 @@ void TestCase6() {
     }
 }
 
-}
\ No newline at end of file
+    @Test
+    void testMostConstrainedGivesSameSolution() {
+        int[][] matrixStart = TestPuzzles.MEDIUM;
+        ClassicSudokuSolver mrvSolver = new ClassicSudokuSolver(SearchStrategy.MOST_CONSTRAINED);
+        mrvSolver.setMatrix(matrixStart);
+        solver.setMatrix(matrixStart);
+        assertTrue(mrvSolver.solve());
+        assertTrue(solver.solve());
+        int[][] matrixResult = mrvSolver.getMatrix();
+        int[][] matrixTrue = solver.getMatrix();
+        for (int i = 0; i < 9; i++) {
+            assertArrayEquals(matrixTrue[i], matrixResult[i]);
+        }
+
+        mrvSolver.clear();
+        assertTrue(mrvSolver.solve());
+        assertTrue(mrvSolver.isAllValid());
+
+        mrvSolver.clear();
+        mrvSolver.setNumber(0, 0, 1);
+        mrvSolver.setNumber(1, 1, 1);
+        assertFalse(mrvSolver.solve());
+    }
+
+    @Test
+    void testDeductionSolvesWithoutGuessing() {
+        int[][] matrixStart = TestPuzzles.EASY;
+        ClassicSudokuSolver deductionSolver = new ClassicSudokuSolver(SearchStrategy.DEDUCTION);
+        deductionSolver.setMatrix(matrixStart);
+        assertTrue(deductionSolver.solve());
+        assertEquals(deductionSolver.getGuessedCount(), 0);
+        assertEquals(deductionSolver.getDeducedCount(), 56);
+        solver.setMatrix(matrixStart);
+        solver.solve();
+        TestPuzzles.assertSameMatrix(solver.getMatrix(), deductionSolver.getMatrix());
+    }
+
+    @Test
+    void testDeductionWithGuesses() {
+        int[][] matrixStart = TestPuzzles.HARD;
+        ClassicSudokuSolver deductionSolver = new ClassicSudokuSolver(SearchStrategy.DEDUCTION);
+        SearchStatsAggregator statistics = new SearchStatsAggregator();
+        deductionSolver.setSearchListener(statistics);
+        deductionSolver.setMatrix(matrixStart);
+        assertTrue(deductionSolver.solve());
+        assertTrue(deductionSolver.getGuessedCount() > 0);
+        assertTrue(deductionSolver.getSearchStats().getEliminations() > 0);
+        assertEquals(statistics.getEliminations(), deductionSolver.getSearchStats().getEliminations());
+        solver.setMatrix(matrixStart);
+        solver.solve();
+        TestPuzzles.assertSameMatrix(solver.getMatrix(), deductionSolver.getMatrix());
+    }
+
+    @Test
+    void testDeductionUnsolvableLeavesGivens() {
+        int[][] matrixStart = TestPuzzles.NO_PLACE_FOR_SEVEN;
+        ClassicSudokuSolver deductionSolver = new ClassicSudokuSolver(SearchStrategy.DEDUCTION);
+        deductionSolver.setMatrix(matrixStart);
+        assertFalse(deductionSolver.solve());
+        TestPuzzles.assertSameMatrix(matrixStart, deductionSolver.getMatrix());
+
+        deductionSolver.clearNumber(2, 3);
+        assertTrue(deductionSolver.solve());
+        assertTrue(deductionSolver.isAllValid());
+    }
+
+    @Test
+    void testCountSolutions() {
+        TestPuzzles.assertCountsSolutions(solver);
+    }
+
+    @Test
+    void testSearchStats() {
+        int[][] matrixStart = TestPuzzles.HARD;
+        SearchStatsAggregator statistics = new SearchStatsAggregator();
+        solver.setSearchListener(statistics);
+        solver.setMatrix(matrixStart);
+        assertTrue(solver.solve());
+
+        SearchStats stats = solver.getSearchStats();
+        assertEquals(stats.getSolutions(), 1);
+        assertEquals(stats.getGuesses() - stats.getBacktracks(), 60);
+        assertEquals(stats.getMaxDepth(), 60);
+        assertTrue(stats.getNodes() >= 60);
+        assertTrue(stats.getCandidateChecks() >= stats.getNodes());
+        assertTrue(stats.getNanos() > 0);
+
+        assertEquals(statistics.getSearches(), 1);
+        assertEquals(statistics.getNodes(), stats.getNodes());
+        assertEquals(statistics.getMaxNodes(), stats.getNodes());
+
+        solver.setSearchListener(null);
+        solver.setMatrix(matrixStart);
+        assertEquals(solver.countSolutions(2), 1);
+        assertEquals(solver.getSearchStats().getSolutions(), 1);
+        assertEquals(solver.getSearchStats().getNanos(), 0);
+        assertEquals(statistics.getSearches(), 1);
+    }
+
+    @Test
+    void testUnsolvableWithoutDuplicates() {
+        int[][] matrixStart = {
+                {1, 2, 3, 0, 0, 0, 0, 0, 0},
+                {4, 5, 6, 0, 0, 0, 0, 0, 0},
+                {0, 0, 0, 7, 0, 0, 0, 0, 0},
+                {0, 0, 0, 0, 0, 0, 0, 0, 0},
+                {0, 0, 0, 0, 0, 0, 0, 0, 0},
+                {0, 0, 0, 0, 0, 0, 0, 0, 0},
+                {0, 0, 0, 0, 0, 0, 0, 0, 0},
+                {0, 0, 0, 0, 0, 0, 0, 0, 0},
+                {0, 0, 7, 0, 0, 0, 0, 0, 0}
+        };
+        for (SearchStrategy strategy : SearchStrategy.values()) {
+            ClassicSudokuSolver s = new ClassicSudokuSolver(strategy);
+            s.setMatrix(matrixStart);
+            assertTrue(s.isAllValid());
+            assertFalse(s.solve());
+            assertEquals(s.getSearchStats().getNodes(), 0);
+            assertEquals(s.countSolutions(1), 0);
+            assertEquals(s.getNumber(2, 0), 0);
+        }
+    }
+
+    @Test
+    void testUnsolvableFailsFast() {
+        for (SearchStrategy strategy : new SearchStrategy[]{SearchStrategy.MOST_CONSTRAINED, SearchStrategy.DEDUCTION}) {
+            ClassicSudokuSolver s = new ClassicSudokuSolver(strategy);
+            TestPuzzles.setPuzzle(s, TestPuzzles.UNSOLVABLE);
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> assertFalse(s.solve()));
+            assertTrue(s.getSearchStats().getNodes() < 100_000);
+            assertEquals(s.getNumber(0, 5), 5);
+            assertEquals(s.getNumber(0, 0), 0);
+        }
+    }
+
+    @Test
+    void testEditReportsConflicts() {
+        int[] changed = new int[21];
+        assertEquals(solver.edit(0, 0, 5, changed), 0);
+        assertFalse(solver.isConflicting(0, 0));
+
+        assertEquals(solver.edit(0, 8, 5, changed), 2);
+        assertEquals(changed[0], 0);
+        assertEquals(changed[1], 8);
+        assertTrue(solver.isConflicting(0, 0));
+        assertTrue(solver.isConflicting(0, 8));
+
+        assertEquals(solver.edit(2, 2, 5, changed), 1);
+        assertEquals(changed[0], 2 * 9 + 2);
+        assertTrue(solver.isConflicting(2, 2));
+        assertFalse(solver.isAllValid());
+
+        assertEquals(solver.edit(0, 0, 0, changed), 3);
+        assertFalse(solver.isConflicting(0, 8));
+        assertFalse(solver.isConflicting(2, 2));
+        assertTrue(solver.isAllValid());
+
+        assertEquals(solver.edit(0, 8, 5, changed), 0);
+        assertEquals(solver.edit(0, 8, 6, changed), 0);
+        assertEquals(solver.getNumber(0, 8), 6);
+        assertThrows(IllegalArgumentException.class, () -> solver.edit(0, 0, 1, new int[20]));
+        assertThrows(IllegalArgumentException.class, () -> solver.edit(0, 9, 1, changed));
+    }
+
+    @Test
+    void testGetCandidates() {
+        assertEquals(solver.getCandidates(4, 4), 0x3FE);
+        solver.setNumber(4, 0, 1);
+        solver.setNumber(0, 4, 2);
+        solver.setNumber(3, 3, 3);
+        solver.setNumber(8, 8, 4);
+        assertEquals(solver.getCandidates(4, 4), 0x3FE & ~(1 << 1 | 1 << 2 | 1 << 3));
+        assertEquals(solver.getCandidates(4, 0), 0);
+        for (int nbr = 1; nbr <= 9; nbr++) {
+            assertEquals((solver.getCandidates(4, 4) & (1 << nbr)) != 0, solver.isValid(4, 4, nbr));
+        }
+
+        solver.clearNumber(3, 3);
+        assertEquals(solver.getCandidates(4, 4), 0x3FE & ~(1 << 1 | 1 << 2));
+
+        short[] all = new short[81];
+        solver.getAllCandidates(all);
+        assertEquals(all[4 * 9 + 4], solver.getCandidates(4, 4));
+        assertEquals(all[8 * 9 + 8], 0);
+        assertEquals(all[8 * 9 + 7], 0x3FE & ~(1 << 4));
+        assertThrows(IllegalArgumentException.class, () -> solver.getAllCandidates(new short[80]));
+        assertThrows(IllegalArgumentException.class, () -> solver.getCandidates(9, 0));
+    }
+
+    @Test
+    void testSolutions() {
+        int[][] matrixStart = {
+                {0, 0, 0, 0, 0, 9, 0, 6, 2},
+                {0, 0, 0, 0, 0, 0, 0, 0, 0},
+                {1, 0, 2, 5, 0, 0, 0, 0, 0},
+                {0, 0, 0, 2, 1, 0, 0, 9, 0},
+                {0, 5, 0, 0, 0, 0, 6, 0, 0},
+                {6, 0, 0, 0, 0, 0, 0, 2, 8},
+                {4, 1, 0, 6, 0, 8, 0, 0, 0},
+                {8, 6, 0, 0, 3, 0, 1, 0, 0},
+                {0, 0, 0, 0, 0, 0, 4, 0, 0}
+        };
+        solver.setMatrix(matrixStart);
+        int count = solver.countSolutions(1000);
+        assertTrue(count > 1 && count < 1000);
+        assertEquals(solver.solutions().count(), (long) count);
+        assertTrue(solver.solutions().allMatch(solution -> {
+            ClassicSudokuSolver check = new ClassicSudokuSolver();
+            check.setMatrix(solution);
+            return check.isAllValid() && check.solutions().count() == 1;
+        }));
+        int[][] matrixResult = solver.getMatrix();
+        for (int i = 0; i < 9; i++) {
+            assertArrayEquals(matrixStart[i], matrixResult[i]);
+        }
+
+        solver.clear();
+        assertEquals(solver.solutions().limit(100).count(), 100L);
+    }
+}
@@ -0,0 +1,456 @@
+package sudoku;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Implementation of <code>SudokuSolver</code> for a classic nine-by-nine sudoku, solving it as an exact cover
+ * problem with Knuth's Algorithm X and Dancing Links.
+ * <p>
+ * The cover matrix has one column for every constraint (324: each box holds a number, and each row, column
+ * and three-by-three area holds each number once) and one row for every candidate placement (729: a number in
+ * a box). The matrix is built once when the solver is constructed. A call to <code>solve</code> covers the
+ * rows of the given numbers, searches, and then uncovers everything again, so the same node arrays are reused
+ * for every sudoku.
+ */
+public class DancingLinksSudokuSolver implements SudokuSolver {
+    private static final int COLUMNS = 324;
+    private static final int CANDIDATES = 729;
+    private static final int ROOT = COLUMNS;
+    private static final int NODES = COLUMNS + 1 + CANDIDATES * 4;
+    private static final int CANCELLATION_INTERVAL_MASK = 0x3FF;
+
+    private final int[][] sudokuMatrix;
+    private final int[] left;
+    private final int[] right;
+    private final int[] up;
+    private final int[] down;
+    private final int[] column;
+    private final int[] candidate;
+    private final int[] size;
+    private final int[] rowStart;
+    private final int[] solution;
+    private final int[] givens;
+    private BooleanSupplier cancellationCheck;
+    private long searchNodes;
+
+    /**
+     * Constructs new DancingLinksSudokuSolver with an empty 9x9 matrix and builds the cover matrix
+     */
+    public DancingLinksSudokuSolver() {
+        sudokuMatrix = new int[9][9];
+        left = new int[NODES];
+        right = new int[NODES];
+        up = new int[NODES];
+        down = new int[NODES];
+        column = new int[NODES];
+        candidate = new int[NODES];
+        size = new int[COLUMNS];
+        rowStart = new int[CANDIDATES];
+        solution = new int[81];
+        givens = new int[81];
+        buildCoverMatrix();
+    }
+
+    /**
+     * Sets the number nbr in box r, c.
+     *
+     * @param r   The row
+     * @param c   The column
+     * @param nbr The number to insert in box r, c
+     * @throws IllegalArgumentException if r or c is outside [0..8] or
+     *                                  number is outside [1..9]
+     */
+    public void setNumber(int r, int c, int nbr) {
+        if (nbr > 9 || nbr < 1) {
+            throw new IllegalArgumentException("Number is not between 1 and 9");
+        } else if (r < 0 || r > 8 || c < 0 || c > 8) {
+            throw new IllegalArgumentException("r or c are outside of the dimension");
+        } else {
+            sudokuMatrix[r][c] = nbr;
+        }
+    }
+
+    /**
+     * Returns the number in box r,c. If the box is empty 0 is returned.
+     *
+     * @param r The row
+     * @param c The column
+     * @return the number in box r,c or 0 if the box is empty.
+     * @throws IllegalArgumentException if r or c is outside [0..8]
+     */
+    public int getNumber(int r, int c) {
+        if (r < 0 || r > 8 || c < 0 || c > 8) {
+            throw new IllegalArgumentException("r or c are outside of the dimension");
+        } else {
+            return sudokuMatrix[r][c];
+        }
+    }
+
+    /**
+     * Clears the number in box r,c (sets it to 0)
+     *
+     * @param r The row
+     * @param c The column
+     * @throws IllegalArgumentException if r or c are out of bounds [0..8]
+     */
+    public void clearNumber(int r, int c) {
+        if (r < 0 || r > 8 || c < 0 || c > 8) {
+            throw new IllegalArgumentException("r or c are outside of the dimension");
+        } else {
+            sudokuMatrix[r][c] = 0;
+        }
+    }
+
+    /**
+     * Checks if value nbr is valid in box r,c, that is if no other box in the same row, column
+     * or three-by-three area contains nbr. The grid is not modified.
+     *
+     * @param r   The row
+     * @param c   The column
+     * @param nbr The number to check
+     * @return true if number is valid in box r,c, false if not
+     * @throws IllegalArgumentException if r,c out of bounds [0..8] or nbr is outside of [1..9]
+     */
+    public boolean isValid(int r, int c, int nbr) {
+        if (nbr > 9 || nbr < 1) {
+            throw new IllegalArgumentException("Number is not between 1 and 9");
+        } else if (r < 0 || r > 8 || c < 0 || c > 8) {
+            throw new IllegalArgumentException("r or c are outside of the dimension");
+        }
+        int r0 = (r / 3) * 3;
+        int c0 = (c / 3) * 3;
+        for (int i = 0; i < 9; i++) {
+            if ((i != c && sudokuMatrix[r][i] == nbr) || (i != r && sudokuMatrix[i][c] == nbr)) {
+                return false;
+            }
+            int br = r0 + i / 3;
+            int bc = c0 + i % 3;
+            if ((br != r || bc != c) && sudokuMatrix[br][bc] == nbr) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if all values in SudokuSolver's matrix are valid.
+     *
+     * @return true if all values are valid, false if any value is not valid
+     */
+    public boolean isAllValid() {
+        for (int index = 0; index < 9; index++) {
+            int rowSeen = 0;
+            int colSeen = 0;
+            int boxSeen = 0;
+            for (int i = 0; i < 9; i++) {
+                int rowBit = (1 << sudokuMatrix[index][i]) & ~1;
+                int colBit = (1 << sudokuMatrix[i][index]) & ~1;
+                int boxBit = (1 << sudokuMatrix[(index / 3) * 3 + i / 3][(index % 3) * 3 + i % 3]) & ~1;
+                if ((rowSeen & rowBit) != 0 || (colSeen & colBit) != 0 || (boxSeen & boxBit) != 0) {
+                    return false;
+                }
+                rowSeen |= rowBit;
+                colSeen |= colBit;
+                boxSeen |= boxBit;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tries to solve the sudoku.
+     *
+     * @return true if it was solved, false if not solvable
+     * @throws CancellationException if the cancellation check returned true
+     */
+    public boolean solve() {
+        checkCancellation();
+        if (!isAllValid()) {
+            return false;
+        }
+        int nbrOfGivens = selectGivens();
+        boolean solved;
+        try {
+            solved = search(0, 1, true) == 1;
+        } catch (CancellationException e) {
+            buildCoverMatrix();
+            throw e;
+        }
+        unselectGivens(nbrOfGivens);
+        return solved;
+    }
+
+    /**
+     * Counts the solutions of the sudoku, stopping as soon as limit solutions have been found.
+     * The grid is left unchanged.
+     *
+     * @param limit the maximum number of solutions to count
+     * @return the number of solutions, at most limit
+     * @throws IllegalArgumentException if limit is less than 1
+     * @throws CancellationException    if the cancellation check returned true
+     */
+    public int countSolutions(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit is less than 1");
+        }
+        checkCancellation();
+        if (!isAllValid()) {
+            return 0;
+        }
+        int nbrOfGivens = selectGivens();
+        int found;
+        try {
+            found = search(0, limit, false);
+        } catch (CancellationException e) {
+            buildCoverMatrix();
+            throw e;
+        }
+        unselectGivens(nbrOfGivens);
+        return found;
+    }
+
+    /**
+     * Sets a condition that is polled regularly while searching. As soon as it returns true, the search
+     * stops and a <code>CancellationException</code> is thrown. The grid is only written when a solution
+     * is found, so it is left as it was.
+     *
+     * @param cancellationCheck the condition, or null to never cancel
+     */
+    public void setCancellationCheck(BooleanSupplier cancellationCheck) {
+        this.cancellationCheck = cancellationCheck;
+    }
+
+    /**
+     * Clears the sudoku.
+     */
+    public void clear() {
+        for (int[] row : sudokuMatrix) {
+            Arrays.fill(row, 0);
+        }
+    }
+
+    /**
+     * Returns the numbers in the grid. An empty box i represented
+     * by the value 0.
+     *
+     * @return the numbers in the grid
+     */
+    public int[][] getMatrix() {
+        return Arrays.stream(sudokuMatrix).map(int[]::clone).toArray(int[][]::new);
+    }
+
+    /**
+     * Fills the grid with the numbers in nbrs. The grid is left unchanged if nbrs is rejected.
+     *
+     * @param nbrs the matrix with the numbers to insert
+     * @throws IllegalArgumentException if nbrs have wrong dimension or containing values not in [0..9]
+     */
+    public void setMatrix(int[][] nbrs) {
+        if (nbrs.length != 9) {
+            throw new IllegalArgumentException("nbrs has wrong dimension");
+        }
+        for (int[] row : nbrs) {
+            if (row.length != 9) {
+                throw new IllegalArgumentException("nbrs has wrong dimension");
+            }
+            for (int nbr : row) {
+                if (nbr > 9 || nbr < 0) {
+                    throw new IllegalArgumentException("Value is not in [0..9]");
+                }
+            }
+        }
+        for (int i = 0; i < 9; i++) {
+            System.arraycopy(nbrs[i], 0, sudokuMatrix[i], 0, 9);
+        }
+    }
+
+    /**
+     * Recursive private helpmethod implementing Algorithm X. All covered columns are uncovered
+     * before returning.
+     *
+     * @param k      the number of candidates chosen so far
+     * @param limit  the maximum number of solutions to find
+     * @param record true if the first solution found should be written to sudokuMatrix
+     * @return the number of solutions found, at most limit
+     */
+    private int search(int k, int limit, boolean record) {
+        if ((++searchNodes & CANCELLATION_INTERVAL_MASK) == 0) {
+            checkCancellation();
+        }
+        if (right[ROOT] == ROOT) {
+            if (record) {
+                for (int i = 0; i < k; i++) {
+                    int cand = candidate[solution[i]];
+                    sudokuMatrix[cand / 81][cand / 9 % 9] = cand % 9 + 1;
+                }
+            }
+            return 1;
+        }
+
+        int col = right[ROOT];
+        for (int j = right[col]; j != ROOT && size[col] > 1; j = right[j]) {
+            if (size[j] < size[col]) {
+                col = j;
+            }
+        }
+        if (size[col] == 0) {
+            return 0;
+        }
+
+        cover(col);
+        int found = 0;
+        for (int node = down[col]; node != col && found < limit; node = down[node]) {
+            solution[k] = node;
+            for (int j = right[node]; j != node; j = right[j]) {
+                cover(column[j]);
+            }
+            found += search(k + 1, limit - found, record && found == 0);
+            for (int j = left[node]; j != node; j = left[j]) {
+                uncover(column[j]);
+            }
+        }
+        uncover(col);
+        return found;
+    }
+
+    /**
+     * Private helpmethod choosing the candidate rows of all numbers in sudokuMatrix. The grid must be valid.
+     *
+     * @return the number of rows chosen
+     */
+    private int selectGivens() {
+        int nbrOfGivens = 0;
+        for (int r = 0; r < 9; r++) {
+            for (int c = 0; c < 9; c++) {
+                if (sudokuMatrix[r][c] != 0) {
+                    int node = rowStart[(r * 9 + c) * 9 + sudokuMatrix[r][c] - 1];
+                    selectRow(node);
+                    givens[nbrOfGivens++] = node;
+                }
+            }
+        }
+        return nbrOfGivens;
+    }
+
+    /**
+     * Private helpmethod undoing <code>selectGivens</code>
+     *
+     * @param nbrOfGivens the number of rows chosen by <code>selectGivens</code>
+     */
+    private void unselectGivens(int nbrOfGivens) {
+        for (int i = nbrOfGivens - 1; i >= 0; i--) {
+            unselectRow(givens[i]);
+        }
+    }
+
+    /**
+     * Private helpmethod throwing if the cancellation check returns true
+     *
+     * @throws CancellationException if the cancellation check returned true
+     */
+    private void checkCancellation() {
+        if (cancellationCheck != null && cancellationCheck.getAsBoolean()) {
+            throw new CancellationException("Search was cancelled");
+        }
+    }
+
+    /**
+     * Private helpmethod choosing a candidate row by covering every column it is in
+     *
+     * @param node any node of the row, the columns are covered starting from it
+     */
+    private void selectRow(int node) {
+        int j = node;
+        do {
+            cover(column[j]);
+            j = right[j];
+        } while (j != node);
+    }
+
+    /**
+     * Private helpmethod undoing <code>selectRow</code>
+     *
+     * @param node the node that was passed to <code>selectRow</code>
+     */
+    private void unselectRow(int node) {
+        int j = node;
+        do {
+            j = left[j];
+            uncover(column[j]);
+        } while (j != node);
+    }
+
+    /**
+     * Private helpmethod removing column col from the header list and all rows in col from the other columns
+     *
+     * @param col the column header
+     */
+    private void cover(int col) {
+        right[left[col]] = right[col];
+        left[right[col]] = left[col];
+        for (int i = down[col]; i != col; i = down[i]) {
+            for (int j = right[i]; j != i; j = right[j]) {
+                down[up[j]] = down[j];
+                up[down[j]] = up[j];
+                size[column[j]]--;
+            }
+        }
+    }
+
+    /**
+     * Private helpmethod undoing <code>cover</code>
+     *
+     * @param col the column header
+     */
+    private void uncover(int col) {
+        for (int i = up[col]; i != col; i = up[i]) {
+            for (int j = left[i]; j != i; j = left[j]) {
+                size[column[j]]++;
+                down[up[j]] = j;
+                up[down[j]] = j;
+            }
+        }
+        right[left[col]] = col;
+        left[right[col]] = col;
+    }
+
+    /**
+     * Private helpmethod building the 324 column headers and the 729 candidate rows of the cover matrix.
+     * Also used to reset the matrix after a cancelled search.
+     */
+    private void buildCoverMatrix() {
+        Arrays.fill(size, 0);
+        for (int col = 0; col <= ROOT; col++) {
+            left[col] = col == 0 ? ROOT : col - 1;
+            right[col] = col == ROOT ? 0 : col + 1;
+            up[col] = col;
+            down[col] = col;
+            column[col] = col;
+        }
+
+        int node = ROOT + 1;
+        for (int cand = 0; cand < CANDIDATES; cand++) {
+            int r = cand / 81;
+            int c = cand / 9 % 9;
+            int d = cand % 9;
+            int b = (r / 3) * 3 + c / 3;
+            int[] cols = {r * 9 + c, 81 + r * 9 + d, 162 + c * 9 + d, 243 + b * 9 + d};
+            rowStart[cand] = node;
+            for (int i = 0; i < 4; i++) {
+                int col = cols[i];
+                column[node] = col;
+                candidate[node] = cand;
+                up[node] = up[col];
+                down[node] = col;
+                down[up[col]] = node;
+                up[col] = node;
+                size[col]++;
+                left[node] = i == 0 ? node + 3 : node - 1;
+                right[node] = i == 3 ? node - 3 : node + 1;
+                node++;
+            }
+        }
+    }
+}
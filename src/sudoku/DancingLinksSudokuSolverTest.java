@@ -0,0 +1,83 @@
+package sudoku;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for testing the dancing links sudoku solver.
+ */
+class DancingLinksSudokuSolverTest {
+    DancingLinksSudokuSolver solver;
+
+    @BeforeEach
+    void setUp() {
+        solver = new DancingLinksSudokuSolver();
+    }
+
+    @AfterEach
+    void tearDown() {
+        solver.clear();
+    }
+
+    @Test
+    void testIsValid() {
+        solver.setNumber(0, 0, 1);
+        assertFalse(solver.isValid(0, 5, 1));
+        assertFalse(solver.isValid(5, 0, 1));
+        assertFalse(solver.isValid(2, 2, 1));
+        assertTrue(solver.isValid(0, 0, 1));
+        assertTrue(solver.isValid(4, 4, 1));
+    }
+
+    @Test
+    void testIsAllValid() {
+        solver.setNumber(0, 0, 1);
+        assertTrue(solver.isAllValid());
+        solver.setNumber(1, 1, 1);
+        assertFalse(solver.isAllValid());
+    }
+
+    @Test
+    void testEmptySudoku() {
+        assertTrue(solver.solve());
+        assertTrue(solver.isAllValid());
+        for (int r = 0; r < 9; r++) {
+            for (int c = 0; c < 9; c++) {
+                assertNotEquals(solver.getNumber(r, c), 0);
+            }
+        }
+    }
+
+    @Test
+    void testClassicTestCases() {
+        TestPuzzles.assertSolvesTestCases(solver);
+    }
+
+    @Test
+    void testSolveTwice() {
+        for (int run = 0; run < 2; run++) {
+            solver.setMatrix(TestPuzzles.EASY);
+            assertTrue(solver.solve());
+            TestPuzzles.assertSameMatrix(TestPuzzles.EASY_SOLUTION, solver.getMatrix());
+        }
+    }
+
+    @Test
+    void testHardSudoku() {
+        solver.setMatrix(TestPuzzles.HARD);
+        assertTrue(solver.solve());
+        assertTrue(solver.isAllValid());
+        ClassicSudokuSolver reference = new ClassicSudokuSolver();
+        reference.setMatrix(TestPuzzles.HARD);
+        assertTrue(reference.solve());
+        TestPuzzles.assertSameMatrix(reference.getMatrix(), solver.getMatrix());
+    }
+
+    @Test
+    void testCountSolutions() {
+        TestPuzzles.assertCountsSolutions(solver);
+    }
+}
@@ -0,0 +1,21 @@
+package sudoku;
+
+/**
+ * How hard a sudoku is for a person, judged by the techniques a <code>DEDUCTION</code> solver needs for it.
+ */
+public enum Difficulty {
+    /**
+     * Solved by filling in naked and hidden singles only.
+     */
+    EASY,
+
+    /**
+     * Solved without guessing, but needs locked candidates besides singles.
+     */
+    MEDIUM,
+
+    /**
+     * Needs at least one guess.
+     */
+    HARD
+}
@@ -0,0 +1,877 @@
+package sudoku;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Implementation of <code>SudokuSolver</code> for sudokus of any size n*n by n*n, for example 4x4, 9x9,
+ * 16x16 or 25x25, where n is the size of the areas.
+ * <p>
+ * Every row, column and area keeps one occupancy bitmask in a <code>long</code>, where bit <code>nbr</code>
+ * is set if the number is present in that unit, so the solver supports area sizes up to 7 (49x49).
+ * The area of a box is computed from its row and column. All arrays are allocated by the constructor,
+ * so solving does not allocate anything.
+ * <p>
+ * The search is iterative. Every branch point is a level on an explicit stack that holds the options not yet
+ * tried and the box filled in for the current option, so backtracking empties one box per level and the
+ * depth of the search does not depend on the Java stack. A search can be given a budget of nodes, after
+ * which it is suspended with its stack intact, and a suspended search can be saved with
+ * <code>checkpoint</code> and continued later, also by another solver.
+ * <p>
+ * The search branches like <code>ClassicSudokuSolver</code> with <code>MOST_CONSTRAINED</code>, on the empty box
+ * with the fewest valid numbers or on a unit and missing number with fewer valid boxes, and <code>chooseBranch</code>
+ * is the same rule written for this layout. It is not shared because the innermost loop of both solvers reads
+ * the candidates of a box straight from their masks: an <code>int</code> per unit in fixed 9x9 tables there, a
+ * <code>long</code> per unit in arrays sized by the constructor here. Sharing the rule would put a virtual call
+ * or a widening of every classic mask into that loop, so a change to the rule must be made in both solvers.
+ */
+public class GeneralSudokuSolver implements SudokuSolver {
+    /**
+     * The largest supported area size. Numbers up to 7 * 7 = 49 fit in the bits 1..49 of a long.
+     */
+    public static final int MAX_BOX_SIZE = 7;
+
+    /**
+     * Results of <code>chooseBranch</code>
+     */
+    private static final int SOLVED = 0;
+    private static final int DEAD_END = 1;
+    private static final int BRANCH_ON_BOX = 2;
+    private static final int BRANCH_ON_UNIT = 3;
+
+    /**
+     * The first four bytes of a checkpoint
+     */
+    private static final int CHECKPOINT_MAGIC = 0x53444B43;
+
+    private final int boxSize;
+    private final int dimension;
+    private final int size;
+    private final long allNumbers;
+    private final int[] units;
+    private final byte[] cells;
+    private final long[] masks;
+    private final byte[] counts;
+    private int duplicates;
+    private final SearchStats stats;
+    private BooleanSupplier cancellationCheck;
+    private final byte[] searchStart;
+    private int branchIndex;
+    private long branchOptions;
+    private int branchNumber;
+    private final byte[] stackBranch;
+    private final int[] stackIndex;
+    private final long[] stackOptions;
+    private final byte[] stackNumber;
+    private final int[] stackPlaced;
+    private int depth;
+    private boolean suspended;
+
+    /**
+     * Constructs new GeneralSudokuSolver with an empty (boxSize * boxSize) x (boxSize * boxSize) matrix
+     *
+     * @param boxSize the number of rows and columns of one area, 3 for a classic sudoku
+     * @throws IllegalArgumentException if boxSize is outside [2..MAX_BOX_SIZE]
+     */
+    public GeneralSudokuSolver(int boxSize) {
+        if (boxSize < 2 || boxSize > MAX_BOX_SIZE) {
+            throw new IllegalArgumentException("boxSize is not between 2 and " + MAX_BOX_SIZE);
+        }
+        this.boxSize = boxSize;
+        dimension = boxSize * boxSize;
+        size = dimension * dimension;
+        allNumbers = ((1L << dimension) - 1) << 1;
+        units = new int[3 * size];
+        for (int index = 0; index < dimension; index++) {
+            int r0 = (index / boxSize) * boxSize;
+            int c0 = (index % boxSize) * boxSize;
+            for (int i = 0; i < dimension; i++) {
+                units[index * dimension + i] = index * dimension + i;
+                units[size + index * dimension + i] = i * dimension + index;
+                units[2 * size + index * dimension + i] = (r0 + i / boxSize) * dimension + c0 + i % boxSize;
+            }
+        }
+        cells = new byte[size];
+        masks = new long[3 * dimension];
+        counts = new byte[3 * dimension * (dimension + 1)];
+        stats = new SearchStats();
+        searchStart = new byte[size];
+        stackBranch = new byte[size];
+        stackIndex = new int[size];
+        stackOptions = new long[size];
+        stackNumber = new byte[size];
+        stackPlaced = new int[size];
+    }
+
+    /**
+     * Returns the number of rows and columns of one area
+     *
+     * @return the area size
+     */
+    public int getBoxSize() {
+        return boxSize;
+    }
+
+    /**
+     * Returns the dimension of the grid, the square of the area size
+     *
+     * @return the dimension of the grid
+     */
+    public int getDimension() {
+        return dimension;
+    }
+
+    /**
+     * Sets the number nbr in box r, c.
+     *
+     * @param r   The row
+     * @param c   The column
+     * @param nbr The number to insert in box r, c
+     * @throws IllegalArgumentException if r or c is outside [0..dimension - 1] or
+     *                                  number is outside [1..dimension]
+     */
+    public void setNumber(int r, int c, int nbr) {
+        if (nbr > dimension || nbr < 1) {
+            throw new IllegalArgumentException("Number is not between 1 and " + dimension);
+        }
+        checkBox(r, c);
+        abandon();
+        remove(r * dimension + c);
+        place(r * dimension + c, nbr);
+    }
+
+    /**
+     * Returns the number in box r,c. If the box is empty 0 is returned.
+     *
+     * @param r The row
+     * @param c The column
+     * @return the number in box r,c or 0 if the box is empty.
+     * @throws IllegalArgumentException if r or c is outside [0..dimension - 1]
+     */
+    public int getNumber(int r, int c) {
+        checkBox(r, c);
+        return cells[r * dimension + c];
+    }
+
+    /**
+     * Clears the number in box r,c (sets it to 0)
+     *
+     * @param r The row
+     * @param c The column
+     * @throws IllegalArgumentException if r or c is outside [0..dimension - 1]
+     */
+    public void clearNumber(int r, int c) {
+        checkBox(r, c);
+        abandon();
+        remove(r * dimension + c);
+    }
+
+    /**
+     * Checks if value nbr is valid in box r,c, that is if no other box in the same row, column
+     * or area contains nbr. The grid is not modified.
+     *
+     * @param r   The row
+     * @param c   The column
+     * @param nbr The number to check
+     * @return true if number is valid in box r,c, false if not
+     * @throws IllegalArgumentException if r or c is outside [0..dimension - 1] or nbr is outside [1..dimension]
+     */
+    public boolean isValid(int r, int c, int nbr) {
+        if (nbr > dimension || nbr < 1) {
+            throw new IllegalArgumentException("Number is not between 1 and " + dimension);
+        }
+        checkBox(r, c);
+        int i = r * dimension + c;
+        if (cells[i] == 0) {
+            return (candidates(i) & (1L << nbr)) != 0;
+        }
+        int own = cells[i] == nbr ? 1 : 0;
+        return counts[r * (dimension + 1) + nbr] == own
+                && counts[(dimension + c) * (dimension + 1) + nbr] == own
+                && counts[(2 * dimension + getBoxIndex(i)) * (dimension + 1) + nbr] == own;
+    }
+
+    /**
+     * Checks if all values in SudokuSolver's matrix are valid.
+     *
+     * @return true if all values are valid, false if any value is not valid
+     */
+    public boolean isAllValid() {
+        return duplicates == 0;
+    }
+
+    /**
+     * Tries to solve the sudoku, always branching on the empty box or the missing number of a unit
+     * with the fewest valid options next. A suspended search is abandoned first.
+     *
+     * @return true if it was solved, false if not solvable
+     * @throws CancellationException if the cancellation check returned true. The grid is restored first.
+     */
+    public boolean solve() {
+        abandon();
+        return solve(Long.MAX_VALUE) == SearchStatus.SOLVED;
+    }
+
+    /**
+     * Searches for a solution for at most maxNodes search nodes. If a search is suspended it is continued,
+     * otherwise a new search starts from the grid. When the budget is used up the search is suspended: the
+     * grid keeps the numbers placed so far and the next call continues where this one stopped. Changing the
+     * grid, or calling <code>solve()</code> or <code>countSolutions</code>, abandons a suspended search and
+     * restores the grid it started from.
+     *
+     * @param maxNodes the largest number of search nodes to visit in this call
+     * @return SOLVED if the solution is in the grid, NOT_SOLVABLE if there is none, SUSPENDED if the budget ran out
+     * @throws IllegalArgumentException if maxNodes is less than 1
+     * @throws CancellationException    if the cancellation check returned true. The search is abandoned and the
+     *                                  grid is restored first.
+     */
+    public SearchStatus solve(long maxNodes) {
+        if (maxNodes < 1) {
+            throw new IllegalArgumentException("maxNodes is less than 1");
+        }
+        if (!suspended) {
+            startSearch();
+            if (!isAllValid()) {
+                return SearchStatus.NOT_SOLVABLE;
+            }
+        } else if (cancellationCheck != null && cancellationCheck.getAsBoolean()) {
+            abandon();
+            throw new CancellationException("Search was cancelled");
+        }
+        suspended = false;
+        int found;
+        try {
+            found = search(1, maxNodes);
+        } catch (CancellationException e) {
+            unwind();
+            throw e;
+        }
+        if (suspended) {
+            return SearchStatus.SUSPENDED;
+        }
+        depth = 0;
+        stats.solutions = found;
+        return found > 0 ? SearchStatus.SOLVED : SearchStatus.NOT_SOLVABLE;
+    }
+
+    /**
+     * Checks if a search was suspended by <code>solve(long)</code> and can be continued
+     *
+     * @return true if a search is suspended
+     */
+    public boolean isSuspended() {
+        return suspended;
+    }
+
+    /**
+     * Saves the suspended search: the grid it started from, the branch points on its stack and its
+     * statistics. <code>restore</code> continues it on any solver of the same size.
+     *
+     * @return the checkpoint
+     * @throws IllegalStateException if no search is suspended
+     */
+    public byte[] checkpoint() {
+        if (!suspended) {
+            throw new IllegalStateException("No search is suspended");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(4 + 4 + size + 3 * 8 + 4 + 4 + depth * 18);
+        buffer.putInt(CHECKPOINT_MAGIC).putInt(boxSize).put(searchStart);
+        buffer.putLong(stats.nodes).putLong(stats.guesses).putLong(stats.backtracks).putInt(stats.maxDepth);
+        buffer.putInt(depth);
+        for (int k = 0; k < depth; k++) {
+            buffer.put(stackBranch[k]).putInt(stackIndex[k]).putLong(stackOptions[k]).put(stackNumber[k])
+                    .putInt(stackPlaced[k]);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Replaces the grid with a search saved by <code>checkpoint</code>, suspended where it was saved.
+     * The next call to <code>solve(long)</code> continues it.
+     *
+     * @param checkpoint the checkpoint
+     * @throws IllegalArgumentException if checkpoint was not saved by a solver of this size or is damaged.
+     *                                  The grid is cleared first.
+     */
+    public void restore(byte[] checkpoint) {
+        ByteBuffer buffer = ByteBuffer.wrap(checkpoint);
+        try {
+            if (buffer.getInt() != CHECKPOINT_MAGIC || buffer.getInt() != boxSize) {
+                throw new IllegalArgumentException("checkpoint is not for this solver");
+            }
+            byte[] start = new byte[size];
+            buffer.get(start);
+            setCells(start, 0);
+            System.arraycopy(start, 0, searchStart, 0, size);
+            stats.reset();
+            stats.nodes = buffer.getLong();
+            stats.guesses = buffer.getLong();
+            stats.backtracks = buffer.getLong();
+            stats.maxDepth = buffer.getInt();
+            int levels = buffer.getInt();
+            if (levels < 0 || levels > size || !isAllValid()) {
+                throw new IllegalArgumentException("checkpoint is damaged");
+            }
+            for (depth = 0; depth < levels; depth++) {
+                stackBranch[depth] = buffer.get();
+                stackIndex[depth] = buffer.getInt();
+                stackOptions[depth] = buffer.getLong();
+                stackNumber[depth] = buffer.get();
+                stackPlaced[depth] = buffer.getInt();
+                if (!replay(depth)) {
+                    throw new IllegalArgumentException("checkpoint is damaged");
+                }
+            }
+            stats.depth = levels;
+            if (buffer.hasRemaining()) {
+                throw new IllegalArgumentException("checkpoint is damaged");
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            depth = 0;
+            clear();
+            throw e instanceof IllegalArgumentException ? (IllegalArgumentException) e
+                    : new IllegalArgumentException("checkpoint is truncated", e);
+        }
+        suspended = true;
+    }
+
+    /**
+     * Counts the solutions of the sudoku, stopping as soon as limit solutions have been found.
+     * The grid is left unchanged. A suspended search is abandoned first.
+     *
+     * @param limit the maximum number of solutions to count
+     * @return the number of solutions, at most limit
+     * @throws IllegalArgumentException if limit is less than 1
+     * @throws CancellationException    if the cancellation check returned true. The grid is restored first.
+     */
+    public int countSolutions(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit is less than 1");
+        }
+        abandon();
+        startSearch();
+        int found = 0;
+        try {
+            if (isAllValid()) {
+                found = search(limit, Long.MAX_VALUE);
+            }
+        } finally {
+            unwind();
+        }
+        stats.solutions = found;
+        return found;
+    }
+
+    /**
+     * Returns every solution of the sudoku, each found only when the stream asks for it. The search runs on
+     * a copy of the grid and keeps its stack between solutions, so the grid of this solver is left unchanged,
+     * memory use does not grow with the number of solutions, and a stream cut short with <code>limit</code>
+     * or <code>findFirst</code> stops searching. The copy polls the cancellation check set when this method
+     * was called.
+     *
+     * @return the solutions, in the order the search finds them
+     */
+    public Stream<int[][]> solutions() {
+        GeneralSudokuSolver copy = new GeneralSudokuSolver(boxSize);
+        copy.setCells(cells, 0);
+        copy.setCancellationCheck(cancellationCheck);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new SolutionIterator(copy),
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Returns the effort of the last call to <code>solve</code> or <code>countSolutions</code>.
+     * The object is overwritten by the next search. Wall time is not measured.
+     *
+     * @return the search effort
+     */
+    public SearchStats getSearchStats() {
+        return stats;
+    }
+
+    /**
+     * Sets a condition that is polled regularly while searching. As soon as it returns true, the search
+     * stops, the grid is restored to what it was before the search, and a <code>CancellationException</code>
+     * is thrown.
+     *
+     * @param cancellationCheck the condition, or null to never cancel
+     */
+    public void setCancellationCheck(BooleanSupplier cancellationCheck) {
+        this.cancellationCheck = cancellationCheck;
+    }
+
+    /**
+     * Clears the sudoku.
+     */
+    public void clear() {
+        depth = 0;
+        suspended = false;
+        Arrays.fill(cells, (byte) 0);
+        Arrays.fill(masks, 0);
+        Arrays.fill(counts, (byte) 0);
+        duplicates = 0;
+    }
+
+    /**
+     * Returns the numbers in the grid. An empty box i represented
+     * by the value 0.
+     *
+     * @return the numbers in the grid
+     */
+    public int[][] getMatrix() {
+        int[][] matrix = new int[dimension][dimension];
+        for (int r = 0; r < dimension; r++) {
+            for (int c = 0; c < dimension; c++) {
+                matrix[r][c] = cells[r * dimension + c];
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Fills the grid with the numbers in nbrs. The grid is left unchanged if nbrs is rejected.
+     *
+     * @param nbrs the matrix with the numbers to insert
+     * @throws IllegalArgumentException if nbrs have wrong dimension or containing values not in [0..dimension]
+     */
+    public void setMatrix(int[][] nbrs) {
+        if (nbrs.length != dimension) {
+            throw new IllegalArgumentException("nbrs has wrong dimension");
+        }
+        for (int[] row : nbrs) {
+            if (row.length != dimension) {
+                throw new IllegalArgumentException("nbrs has wrong dimension");
+            }
+            for (int nbr : row) {
+                if (nbr > dimension || nbr < 0) {
+                    throw new IllegalArgumentException("Value is not in [0.." + dimension + "]");
+                }
+            }
+        }
+        clear();
+        for (int r = 0; r < dimension; r++) {
+            for (int c = 0; c < dimension; c++) {
+                if (nbrs[r][c] != 0) {
+                    place(r * dimension + c, nbrs[r][c]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies the numbers in the grid row by row into dst, starting at offset. An empty box is
+     * represented by the value 0.
+     *
+     * @param dst    the array to copy the dimension * dimension numbers to
+     * @param offset the index in dst of the number in box 0,0
+     * @throws IllegalArgumentException if the numbers do not fit in dst at offset
+     */
+    public void getCells(byte[] dst, int offset) {
+        if (offset < 0 || offset > dst.length - size) {
+            throw new IllegalArgumentException("dst has no room for " + size + " numbers at offset");
+        }
+        System.arraycopy(cells, 0, dst, offset, size);
+    }
+
+    /**
+     * Fills the grid row by row with the dimension * dimension numbers in src starting at offset.
+     * The grid is left unchanged if src is rejected.
+     *
+     * @param src    the array with the numbers to insert, 0 for an empty box
+     * @param offset the index in src of the number for box 0,0
+     * @throws IllegalArgumentException if src has too few numbers at offset or contains values not in [0..dimension]
+     */
+    public void setCells(byte[] src, int offset) {
+        if (offset < 0 || offset > src.length - size) {
+            throw new IllegalArgumentException("src has fewer than " + size + " numbers at offset");
+        }
+        for (int i = offset; i < offset + size; i++) {
+            if (src[i] > dimension || src[i] < 0) {
+                throw new IllegalArgumentException("Value is not in [0.." + dimension + "]");
+            }
+        }
+        clear();
+        for (int i = 0; i < size; i++) {
+            if (src[offset + i] != 0) {
+                place(i, src[offset + i]);
+            }
+        }
+    }
+
+    /**
+     * Private helpmethod checking that box r,c is inside the grid
+     *
+     * @param r the row
+     * @param c the column
+     * @throws IllegalArgumentException if r or c is outside [0..dimension - 1]
+     */
+    private void checkBox(int r, int c) {
+        if (r < 0 || r >= dimension || c < 0 || c >= dimension) {
+            throw new IllegalArgumentException("r or c are outside of the dimension");
+        }
+    }
+
+    /**
+     * Private helpmethod resetting the search statistics and remembering the grid before a search
+     */
+    private void startSearch() {
+        if (cancellationCheck != null && cancellationCheck.getAsBoolean()) {
+            throw new CancellationException("Search was cancelled");
+        }
+        stats.reset();
+        System.arraycopy(cells, 0, searchStart, 0, size);
+    }
+
+    /**
+     * Private helpmethod running the search from the current stack until limit solutions have been found,
+     * the search tree is exhausted or maxNodes nodes have been visited. Sets suspended in the last case.
+     * When the limit is reached the grid holds the last solution and the stack is left as it is.
+     *
+     * @param limit    the number of solutions to stop at
+     * @param maxNodes the largest number of nodes to visit
+     * @return the number of solutions found
+     */
+    private int search(int limit, long maxNodes) {
+        int found = 0;
+        for (long visited = 0; ; visited++) {
+            if (visited == maxNodes) {
+                suspended = true;
+                return found;
+            }
+            stats.visitNode(cancellationCheck);
+            int branch = chooseBranch();
+            if (branch == SOLVED) {
+                if (++found == limit) {
+                    return found;
+                }
+            } else if (branch != DEAD_END) {
+                stackBranch[depth] = (byte) branch;
+                stackIndex[depth] = branchIndex;
+                stackOptions[depth] = branchOptions;
+                stackNumber[depth] = (byte) branchNumber;
+                stackPlaced[depth] = -1;
+                depth++;
+            }
+            if (!advance()) {
+                return found;
+            }
+        }
+    }
+
+    /**
+     * Private helpmethod moving the search to its next node: empties the box of the option tried last on the
+     * top level and fills in the next option that passes the forward check, popping levels without options left
+     *
+     * @return false if the stack is empty, that is the whole search tree was visited
+     */
+    private boolean advance() {
+        while (depth > 0) {
+            int k = depth - 1;
+            if (stackPlaced[k] >= 0) {
+                remove(stackPlaced[k]);
+                stackPlaced[k] = -1;
+                stats.backtrack();
+            }
+            while (stackOptions[k] != 0) {
+                int option = Long.numberOfTrailingZeros(stackOptions[k]);
+                stackOptions[k] &= stackOptions[k] - 1;
+                int box = stackIndex[k];
+                if (stackBranch[k] == BRANCH_ON_BOX) {
+                    stackNumber[k] = (byte) option;
+                } else {
+                    box = units[box * dimension + option];
+                }
+                stats.guess();
+                place(box, stackNumber[k]);
+                stackPlaced[k] = box;
+                if (forwardCheck(box)) {
+                    return true;
+                }
+                remove(box);
+                stackPlaced[k] = -1;
+                stats.backtrack();
+            }
+            depth--;
+        }
+        return false;
+    }
+
+    /**
+     * Private helpmethod empties the box filled in on every level of the stack and empties the stack, which
+     * restores the grid the search started from
+     */
+    private void unwind() {
+        while (depth > 0) {
+            depth--;
+            if (stackPlaced[depth] >= 0) {
+                remove(stackPlaced[depth]);
+            }
+        }
+    }
+
+    /**
+     * Private helpmethod abandoning a suspended search and restoring the grid it started from
+     */
+    private void abandon() {
+        if (suspended) {
+            unwind();
+            suspended = false;
+        }
+    }
+
+    /**
+     * Private helpmethod filling in the box of a stack level read from a checkpoint, after checking
+     * that the level is consistent with the grid
+     *
+     * @param k the level
+     * @return false if the level does not describe a branch point of this grid
+     */
+    private boolean replay(int k) {
+        int index = stackIndex[k];
+        int placed = stackPlaced[k];
+        int nbr = stackNumber[k];
+        boolean onBox = stackBranch[k] == BRANCH_ON_BOX;
+        if ((!onBox && stackBranch[k] != BRANCH_ON_UNIT) || nbr < 1 || nbr > dimension
+                || placed < 0 || placed >= size || cells[placed] != 0) {
+            return false;
+        } else if (onBox ? index != placed || (stackOptions[k] & ~allNumbers) != 0
+                : index < 0 || index >= 3 * dimension || (stackOptions[k] >>> dimension) != 0
+                || Arrays.stream(units, index * dimension, (index + 1) * dimension).noneMatch(i -> i == placed)) {
+            return false;
+        }
+        place(placed, nbr);
+        return isAllValid();
+    }
+
+    /**
+     * Private helpmethod choosing what to branch on next: the empty box with the fewest valid numbers, or,
+     * if that is fewer, the unit and missing number with the fewest valid boxes. The choice is stored in
+     * branchIndex, branchOptions and branchNumber.
+     *
+     * @return SOLVED if there is no empty box, DEAD_END if a box or a missing number has no valid option left,
+     * otherwise BRANCH_ON_BOX or BRANCH_ON_UNIT
+     */
+    private int chooseBranch() {
+        int best = -1;
+        long bestFree = 0;
+        int bestCount = Integer.MAX_VALUE;
+        for (int i = 0; i < size && bestCount > 1; i++) {
+            if (cells[i] == 0) {
+                long free = candidates(i);
+                int count = Long.bitCount(free);
+                if (count < bestCount) {
+                    if (count == 0) {
+                        return DEAD_END;
+                    }
+                    best = i;
+                    bestFree = free;
+                    bestCount = count;
+                }
+            }
+        }
+        if (best < 0) {
+            return SOLVED;
+        }
+        branchIndex = best;
+        branchOptions = bestFree;
+        if (bestCount == 1) {
+            return BRANCH_ON_BOX;
+        }
+
+        int branch = BRANCH_ON_BOX;
+        for (int u = 0; u < 3 * dimension; u++) {
+            long once = 0;
+            long twice = 0;
+            long more = 0;
+            for (int k = u * dimension; k < (u + 1) * dimension; k++) {
+                int i = units[k];
+                if (cells[i] == 0) {
+                    long free = candidates(i);
+                    more |= twice & free;
+                    twice |= once & free;
+                    once |= free;
+                }
+            }
+            long missing = ~masks[u] & allNumbers;
+            if ((missing & ~once) != 0) {
+                return DEAD_END;
+            }
+            long single = missing & once & ~twice;
+            long pair = missing & twice & ~more;
+            if (single != 0 || (pair != 0 && bestCount > 2 && branch == BRANCH_ON_BOX)) {
+                int nbr = Long.numberOfTrailingZeros(single != 0 ? single : pair);
+                long positions = 0;
+                for (int k = 0; k < dimension; k++) {
+                    int i = units[u * dimension + k];
+                    if (cells[i] == 0 && (candidates(i) & (1L << nbr)) != 0) {
+                        positions |= 1L << k;
+                    }
+                }
+                branchIndex = u;
+                branchOptions = positions;
+                branchNumber = nbr;
+                branch = BRANCH_ON_UNIT;
+                if (single != 0) {
+                    return branch;
+                }
+            }
+        }
+        return branch;
+    }
+
+    /**
+     * Private helpmethod checking, after a number was placed in box i, that every empty box sharing a unit
+     * with it still has a valid number left and that every unit of box i can still place all its missing numbers
+     *
+     * @param i the box, as index r * dimension + c
+     * @return false if the placement left a contradiction behind
+     */
+    private boolean forwardCheck(int i) {
+        for (int u = i / dimension; u < 3 * dimension; u = nextUnit(i, u)) {
+            long covered = masks[u];
+            for (int k = u * dimension; k < (u + 1) * dimension; k++) {
+                int peer = units[k];
+                if (cells[peer] == 0) {
+                    long free = candidates(peer);
+                    if (free == 0) {
+                        return false;
+                    }
+                    covered |= free;
+                }
+            }
+            if (covered != allNumbers) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Private helpmethod returning the numbers not yet used in the row, column and area of box i
+     *
+     * @param i the box, as index r * dimension + c
+     * @return bitmask where bit nbr is set if nbr is still a candidate for box i
+     */
+    private long candidates(int i) {
+        stats.candidateChecks++;
+        return ~(masks[i / dimension] | masks[dimension + i % dimension] | masks[2 * dimension + getBoxIndex(i)])
+                & allNumbers;
+    }
+
+    /**
+     * Private helpmethod writing nbr to the empty box i and updating the unit masks and counters
+     *
+     * @param i   the box, as index r * dimension + c
+     * @param nbr the number, in [1..dimension]
+     */
+    private void place(int i, int nbr) {
+        long bit = 1L << nbr;
+        cells[i] = (byte) nbr;
+        for (int u = i / dimension; u < 3 * dimension; u = nextUnit(i, u)) {
+            masks[u] |= bit;
+            if (counts[u * (dimension + 1) + nbr]++ > 0) {
+                duplicates++;
+            }
+        }
+    }
+
+    /**
+     * Private helpmethod emptying box i and updating the unit masks and counters. Does nothing if the
+     * box is already empty.
+     *
+     * @param i the box, as index r * dimension + c
+     */
+    private void remove(int i) {
+        int nbr = cells[i];
+        if (nbr == 0) {
+            return;
+        }
+        cells[i] = 0;
+        for (int u = i / dimension; u < 3 * dimension; u = nextUnit(i, u)) {
+            int count = --counts[u * (dimension + 1) + nbr];
+            if (count > 0) {
+                duplicates--;
+            } else {
+                masks[u] &= ~(1L << nbr);
+            }
+        }
+    }
+
+    /**
+     * Private helpmethod stepping from one unit of box i to the next, in the order row, column, area
+     *
+     * @param i the box, as index r * dimension + c
+     * @param u the current unit of box i
+     * @return the next unit of box i, or 3 * dimension after the area
+     */
+    private int nextUnit(int i, int u) {
+        if (u < dimension) {
+            return dimension + i % dimension;
+        } else if (u < 2 * dimension) {
+            return 2 * dimension + getBoxIndex(i);
+        }
+        return 3 * dimension;
+    }
+
+    /**
+     * Private helpmethod to get the area index for box i. Areas are numbered from top left to bottom right.
+     *
+     * @param i the box, as index r * dimension + c
+     * @return index for the area box i is in
+     */
+    private int getBoxIndex(int i) {
+        return (i / dimension / boxSize) * boxSize + (i % dimension) / boxSize;
+    }
+
+    /**
+     * Iterates over the solutions of a solver that nobody else uses, continuing its search on every call
+     */
+    private static class SolutionIterator implements Iterator<int[][]> {
+        private final GeneralSudokuSolver solver;
+        private boolean started;
+        private boolean ready;
+        private boolean exhausted;
+
+        /**
+         * Constructs new SolutionIterator
+         *
+         * @param solver the solver holding the sudoku, owned by the iterator
+         */
+        private SolutionIterator(GeneralSudokuSolver solver) {
+            this.solver = solver;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!ready && !exhausted) {
+                if (!started) {
+                    started = true;
+                    solver.startSearch();
+                    ready = solver.isAllValid() && solver.search(1, Long.MAX_VALUE) == 1;
+                } else {
+                    ready = solver.advance() && solver.search(1, Long.MAX_VALUE) == 1;
+                }
+                exhausted = !ready;
+            }
+            return ready;
+        }
+
+        @Override
+        public int[][] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more solutions");
+            }
+            ready = false;
+            return solver.getMatrix();
+        }
+    }
+}
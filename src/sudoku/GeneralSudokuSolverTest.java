@@ -0,0 +1,297 @@
+package sudoku;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for testing the sudoku solver for grids of any size.
+ */
+class GeneralSudokuSolverTest {
+
+    /**
+     * Builds a sudoku from a complete solution of the given area size by emptying a share of its boxes
+     *
+     * @param boxSize the area size
+     * @param empty   the share of boxes to empty
+     * @param seed    the seed choosing the boxes to empty
+     * @return the sudoku
+     */
+    private static int[][] puzzle(int boxSize, double empty, long seed) {
+        int dimension = boxSize * boxSize;
+        Random random = new Random(seed);
+        int[][] matrix = new int[dimension][dimension];
+        for (int r = 0; r < dimension; r++) {
+            for (int c = 0; c < dimension; c++) {
+                int nbr = ((r % boxSize) * boxSize + r / boxSize + c) % dimension + 1;
+                matrix[r][c] = random.nextDouble() < empty ? 0 : nbr;
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Checks that the solver holds a complete, valid grid that keeps every number of the puzzle
+     */
+    private static void assertSolved(GeneralSudokuSolver solver, int[][] puzzle) {
+        int dimension = solver.getDimension();
+        assertTrue(solver.isAllValid());
+        for (int r = 0; r < dimension; r++) {
+            for (int c = 0; c < dimension; c++) {
+                assertNotEquals(solver.getNumber(r, c), 0);
+                if (puzzle[r][c] != 0) {
+                    assertEquals(solver.getNumber(r, c), puzzle[r][c]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testDimension() {
+        assertEquals(new GeneralSudokuSolver(2).getDimension(), 4);
+        assertEquals(new GeneralSudokuSolver(4).getDimension(), 16);
+        assertEquals(new GeneralSudokuSolver(5).getDimension(), 25);
+        assertThrows(IllegalArgumentException.class, () -> new GeneralSudokuSolver(1));
+        assertThrows(IllegalArgumentException.class, () -> new GeneralSudokuSolver(GeneralSudokuSolver.MAX_BOX_SIZE + 1));
+    }
+
+    @Test
+    void testBounds() {
+        GeneralSudokuSolver solver = new GeneralSudokuSolver(4);
+        solver.setNumber(15, 15, 16);
+        assertEquals(solver.getNumber(15, 15), 16);
+        assertThrows(IllegalArgumentException.class, () -> solver.setNumber(16, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> solver.setNumber(0, 0, 17));
+        assertThrows(IllegalArgumentException.class, () -> solver.getNumber(0, -1));
+        assertThrows(IllegalArgumentException.class, () -> solver.setMatrix(new int[9][9]));
+    }
+
+    @Test
+    void testIsValid() {
+        GeneralSudokuSolver solver = new GeneralSudokuSolver(4);
+        solver.setNumber(0, 0, 16);
+        assertFalse(solver.isValid(0, 15, 16));
+        assertFalse(solver.isValid(15, 0, 16));
+        assertFalse(solver.isValid(3, 3, 16));
+        assertTrue(solver.isValid(4, 4, 16));
+        assertTrue(solver.isValid(0, 0, 16));
+        assertTrue(solver.isAllValid());
+
+        solver.setNumber(3, 3, 16);
+        assertFalse(solver.isAllValid());
+        assertFalse(solver.isValid(0, 0, 16));
+        solver.clearNumber(3, 3);
+        assertTrue(solver.isAllValid());
+    }
+
+    @Test
+    void testClassicSize() {
+        GeneralSudokuSolver solver = new GeneralSudokuSolver(3);
+        solver.setMatrix(TestPuzzles.EASY);
+        ClassicSudokuSolver classic = new ClassicSudokuSolver();
+        classic.setMatrix(TestPuzzles.EASY);
+        assertTrue(solver.solve());
+        assertTrue(classic.solve());
+        assertArrayEquals(solver.getMatrix(), classic.getMatrix());
+    }
+
+    @Test
+    void testSolveLarge() {
+        for (int boxSize = 2; boxSize <= 5; boxSize++) {
+            int[][] puzzle = puzzle(boxSize, 0.5, boxSize);
+            GeneralSudokuSolver solver = new GeneralSudokuSolver(boxSize);
+            solver.setMatrix(puzzle);
+            assertTrue(solver.solve());
+            assertSolved(solver, puzzle);
+        }
+    }
+
+    @Test
+    void testEmptySudoku() {
+        GeneralSudokuSolver solver = new GeneralSudokuSolver(4);
+        assertTrue(solver.solve());
+        assertSolved(solver, new int[16][16]);
+    }
+
+    @Test
+    void testUnsolvable() {
+        GeneralSudokuSolver solver = new GeneralSudokuSolver(4);
+        for (int c = 0; c < 15; c++) {
+            solver.setNumber(0, c, c + 1);
+        }
+        solver.setNumber(5, 15, 16);
+        assertTrue(solver.isAllValid());
+        assertFalse(solver.solve());
+        assertEquals(solver.getNumber(0, 15), 0);
+        assertEquals(solver.getNumber(1, 0), 0);
+        assertEquals(solver.countSolutions(1), 0);
+    }
+
+    @Test
+    void testCountSolutions() {
+        int[][] full = puzzle(4, 0, 0);
+        GeneralSudokuSolver solver = new GeneralSudokuSolver(4);
+        solver.setMatrix(full);
+        assertEquals(solver.countSolutions(2), 1);
+
+        solver.clearNumber(0, 0);
+        solver.clearNumber(0, 1);
+        solver.clearNumber(1, 0);
+        solver.clearNumber(1, 1);
+        assertTrue(solver.hasUniqueSolution());
+
+        solver.clear();
+        assertEquals(solver.countSolutions(3), 3);
+        assertEquals(solver.getNumber(0, 0), 0);
+    }
+
+    @Test
+    void testGetCellsSetCells() {
+        int[][] puzzle = puzzle(5, 0.5, 3);
+        GeneralSudokuSolver solver = new GeneralSudokuSolver(5);
+        solver.setMatrix(puzzle);
+        byte[] cells = new byte[2 + 625];
+        solver.getCells(cells, 2);
+        assertEquals(cells[2 + 624], puzzle[24][24]);
+
+        GeneralSudokuSolver copy = new GeneralSudokuSolver(5);
+        copy.setCells(cells, 2);
+        assertArrayEquals(copy.getMatrix(), puzzle);
+        assertThrows(IllegalArgumentException.class, () -> copy.setCells(new byte[81], 0));
+    }
+
+    @Test
+    void testSuspendAndResume() {
+        int[][] puzzle = puzzle(4, 0.6, 11);
+        GeneralSudokuSolver reference = new GeneralSudokuSolver(4);
+        reference.setMatrix(puzzle);
+        assertTrue(reference.solve());
+        long nodes = reference.getSearchStats().getNodes();
+        assertTrue(nodes > 20);
+
+        GeneralSudokuSolver solver = new GeneralSudokuSolver(4);
+        solver.setMatrix(puzzle);
+        int calls = 0;
+        SearchStatus status;
+        do {
+            status = solver.solve(7);
+            calls++;
+            assertEquals(solver.isSuspended(), status == SearchStatus.SUSPENDED);
+        } while (status == SearchStatus.SUSPENDED);
+        assertEquals(status, SearchStatus.SOLVED);
+        assertEquals(calls, (int) ((nodes + 6) / 7));
+        assertEquals(solver.getSearchStats().getNodes(), nodes);
+        assertArrayEquals(solver.getMatrix(), reference.getMatrix());
+        assertThrows(IllegalArgumentException.class, () -> solver.solve(0));
+    }
+
+    @Test
+    void testCheckpoint() {
+        int[][] puzzle = puzzle(4, 0.6, 11);
+        GeneralSudokuSolver reference = new GeneralSudokuSolver(4);
+        reference.setMatrix(puzzle);
+        assertTrue(reference.solve());
+
+        GeneralSudokuSolver solver = new GeneralSudokuSolver(4);
+        solver.setMatrix(puzzle);
+        assertThrows(IllegalStateException.class, solver::checkpoint);
+        assertEquals(solver.solve(10), SearchStatus.SUSPENDED);
+        byte[] checkpoint = solver.checkpoint();
+
+        GeneralSudokuSolver other = new GeneralSudokuSolver(4);
+        other.restore(checkpoint);
+        assertTrue(other.isSuspended());
+        assertArrayEquals(other.getMatrix(), solver.getMatrix());
+        assertEquals(other.solve(Long.MAX_VALUE), SearchStatus.SOLVED);
+        assertArrayEquals(other.getMatrix(), reference.getMatrix());
+        assertEquals(other.getSearchStats().getNodes(), reference.getSearchStats().getNodes());
+
+        assertThrows(IllegalArgumentException.class, () -> new GeneralSudokuSolver(3).restore(checkpoint));
+        assertThrows(IllegalArgumentException.class,
+                () -> other.restore(Arrays.copyOf(checkpoint, checkpoint.length - 1)));
+        assertFalse(other.isSuspended());
+        byte[] damaged = checkpoint.clone();
+        damaged[damaged.length - 1] ^= 0x7F;
+        assertThrows(IllegalArgumentException.class, () -> other.restore(damaged));
+    }
+
+    @Test
+    void testAbandonRestoresGrid() {
+        int[][] puzzle = puzzle(4, 0.6, 11);
+        int given = 0;
+        while (puzzle[given / 16][given % 16] == 0) {
+            given++;
+        }
+        GeneralSudokuSolver solver = new GeneralSudokuSolver(4);
+        solver.setMatrix(puzzle);
+        assertEquals(solver.solve(10), SearchStatus.SUSPENDED);
+        assertFalse(Arrays.deepEquals(solver.getMatrix(), puzzle));
+
+        solver.clearNumber(given / 16, given % 16);
+        assertFalse(solver.isSuspended());
+        puzzle[given / 16][given % 16] = 0;
+        assertArrayEquals(solver.getMatrix(), puzzle);
+
+        assertEquals(solver.solve(10), SearchStatus.SUSPENDED);
+        assertEquals(solver.countSolutions(1), 1);
+        assertFalse(solver.isSuspended());
+        assertArrayEquals(solver.getMatrix(), puzzle);
+    }
+
+    @Test
+    void testCancellationUnwinds() {
+        int[][] puzzle = puzzle(4, 0.6, 11);
+        GeneralSudokuSolver solver = new GeneralSudokuSolver(4);
+        solver.setMatrix(puzzle);
+        assertEquals(solver.solve(10), SearchStatus.SUSPENDED);
+        solver.setCancellationCheck(() -> true);
+        assertThrows(CancellationException.class, () -> solver.solve(Long.MAX_VALUE));
+        assertFalse(solver.isSuspended());
+        assertArrayEquals(solver.getMatrix(), puzzle);
+    }
+
+    @Test
+    void testSolutions() {
+        int[][] puzzle = puzzle(3, 0.6, 5);
+        GeneralSudokuSolver solver = new GeneralSudokuSolver(3);
+        solver.setMatrix(puzzle);
+        int count = solver.countSolutions(10_000);
+        assertTrue(count > 1 && count < 10_000);
+
+        List<int[][]> solutions = solver.solutions().collect(Collectors.toList());
+        assertEquals(solutions.size(), count);
+        assertEquals(solutions.stream().map(Arrays::deepToString).distinct().count(), (long) count);
+        GeneralSudokuSolver check = new GeneralSudokuSolver(3);
+        for (int[][] solution : solutions) {
+            check.setMatrix(solution);
+            assertSolved(check, puzzle);
+        }
+        assertArrayEquals(solver.getMatrix(), puzzle);
+
+        Iterator<int[][]> iterator = new GeneralSudokuSolver(2).solutions().iterator();
+        assertTrue(iterator.hasNext());
+        assertEquals(new GeneralSudokuSolver(2).solutions().count(), 288L);
+
+        solver.setNumber(0, 0, 1);
+        solver.setNumber(0, 1, 1);
+        Iterator<int[][]> none = solver.solutions().iterator();
+        assertFalse(none.hasNext());
+        assertThrows(NoSuchElementException.class, none::next);
+    }
+
+    @Test
+    void testSolutionsAreLazy() {
+        GeneralSudokuSolver solver = new GeneralSudokuSolver(5);
+        assertEquals(solver.solutions().limit(1000).count(), 1000L);
+        assertTrue(solver.solutions().skip(5000).findFirst().isPresent());
+        assertEquals(solver.getNumber(0, 0), 0);
+    }
+}
@@ -0,0 +1,288 @@
+package sudoku;
+
+import java.util.Arrays;
+
+/**
+ * Solves many classic sudokus in lock-step, several at a time.
+ * <p>
+ * Up to <code>LANES</code> sudokus are loaded side by side, one per lane, with the occupancy bitmasks of their
+ * units stored lane after lane, so the masks of one unit for all lanes are next to each other in memory.
+ * Naked singles (a box with one valid number left) and hidden singles (a number with one valid box left in a
+ * unit) are then filled in for all lanes at once, in loops over the lanes that only do bit operations on
+ * adjacent elements. Propagation continues until no lane makes progress. Lanes that are not complete by then
+ * are handed one by one to a fallback <code>SudokuSolver</code>, which does the guessing.
+ * <p>
+ * Most sudokus that people solve need no guessing, so for such batches the fallback is rarely used.
+ */
+public class LaneSolver {
+    /**
+     * The number of sudokus propagated together
+     */
+    public static final int LANES = 16;
+
+    /**
+     * Bitmask with bits 1..9 set, one bit for every number that can be placed in a box
+     */
+    private static final int ALL_NUMBERS = 0x3FE;
+
+    /**
+     * The boxes of every row, column and three-by-three area, as indexes r * 9 + c
+     */
+    private static final int[][] UNITS = new int[27][9];
+
+    /**
+     * The row, column and three-by-three area of every box, as indexes in UNITS
+     */
+    private static final int[] ROW = new int[81];
+    private static final int[] COL = new int[81];
+    private static final int[] BOX = new int[81];
+
+    static {
+        for (int index = 0; index < 9; index++) {
+            for (int i = 0; i < 9; i++) {
+                UNITS[index][i] = index * 9 + i;
+                UNITS[9 + index][i] = i * 9 + index;
+                UNITS[18 + index][i] = ((index / 3) * 3 + i / 3) * 9 + (index % 3) * 3 + i % 3;
+            }
+        }
+        for (int i = 0; i < 81; i++) {
+            ROW[i] = i / 9;
+            COL[i] = 9 + i % 9;
+            BOX[i] = 18 + (i / 27) * 3 + (i % 9) / 3;
+        }
+    }
+
+    private final SudokuSolver fallback;
+    private final byte[] grid = new byte[81 * LANES];
+    private final int[] used = new int[27 * LANES];
+    private final int[] filled = new int[LANES];
+    private final boolean[] dead = new boolean[LANES];
+    private final boolean[] progress = new boolean[LANES];
+    private final byte[] lane = new byte[81];
+    private long fallbackCount;
+
+    /**
+     * Constructs new LaneSolver that guesses with a most-constrained <code>ClassicSudokuSolver</code>
+     */
+    public LaneSolver() {
+        this(new ClassicSudokuSolver(SearchStrategy.MOST_CONSTRAINED));
+    }
+
+    /**
+     * Constructs new LaneSolver
+     *
+     * @param fallback the solver for sudokus that singles alone cannot solve
+     * @throws IllegalArgumentException if fallback is null or not for classic nine-by-nine sudokus
+     */
+    public LaneSolver(SudokuSolver fallback) {
+        if (fallback == null) {
+            throw new IllegalArgumentException("fallback is null");
+        } else if (fallback.getDimension() != 9) {
+            throw new IllegalArgumentException("fallback is not for nine-by-nine sudokus");
+        }
+        this.fallback = fallback;
+    }
+
+    /**
+     * Solves count sudokus stored one after the other in cells, 81 numbers each, starting at offset.
+     * Every sudoku that is solved is replaced by its solution; the others are left unchanged. A sudoku with
+     * duplicates in a unit is not solvable, as with <code>SudokuSolver.solve</code>.
+     *
+     * @param cells  the sudokus row by row, 0 for an empty box
+     * @param offset the index in cells of the first number of the first sudoku
+     * @param count  the number of sudokus
+     * @param solved array receiving, for every sudoku, true if it was solved, or null
+     * @return the number of sudokus that were solved
+     * @throws IllegalArgumentException if cells has fewer than count sudokus at offset, contains values not in
+     *                                  [0..9], or solved has fewer than count elements
+     */
+    public int solveAll(byte[] cells, int offset, int count, boolean[] solved) {
+        if (count < 0 || offset < 0 || offset > cells.length - 81L * count) {
+            throw new IllegalArgumentException("cells has fewer than " + count + " sudokus at offset");
+        } else if (solved != null && solved.length < count) {
+            throw new IllegalArgumentException("solved has fewer than " + count + " elements");
+        }
+        for (int i = offset; i < offset + 81 * count; i++) {
+            if (cells[i] > 9 || cells[i] < 0) {
+                throw new IllegalArgumentException("Value is not in [0..9]");
+            }
+        }
+        int solvedCount = 0;
+        for (int first = 0; first < count; first += LANES) {
+            int lanes = Math.min(LANES, count - first);
+            load(cells, offset + first * 81, lanes);
+            propagate();
+            for (int l = 0; l < lanes; l++) {
+                int start = offset + (first + l) * 81;
+                boolean isSolved;
+                if (dead[l]) {
+                    isSolved = false;
+                } else if (filled[l] == 81) {
+                    for (int i = 0; i < 81; i++) {
+                        cells[start + i] = grid[i * LANES + l];
+                    }
+                    isSolved = true;
+                } else {
+                    isSolved = guess(l, cells, start);
+                }
+                if (solved != null) {
+                    solved[first + l] = isSolved;
+                }
+                solvedCount += isSolved ? 1 : 0;
+            }
+        }
+        return solvedCount;
+    }
+
+    /**
+     * Returns how many sudokus were handed to the fallback solver since this LaneSolver was constructed
+     *
+     * @return the number of sudokus that needed guessing
+     */
+    public long getFallbackCount() {
+        return fallbackCount;
+    }
+
+    /**
+     * Private helpmethod loading sudokus into the lanes. Lanes without a sudoku are marked dead, and so is
+     * every sudoku with a duplicate in a unit.
+     *
+     * @param cells  the sudokus row by row
+     * @param offset the index in cells of the first number of the first sudoku
+     * @param lanes  the number of sudokus to load
+     */
+    private void load(byte[] cells, int offset, int lanes) {
+        Arrays.fill(used, 0);
+        for (int l = 0; l < LANES; l++) {
+            filled[l] = 0;
+            dead[l] = l >= lanes;
+        }
+        for (int i = 0; i < 81; i++) {
+            int row = ROW[i] * LANES;
+            int col = COL[i] * LANES;
+            int box = BOX[i] * LANES;
+            for (int l = 0; l < LANES; l++) {
+                int nbr = l < lanes ? cells[offset + l * 81 + i] : 0;
+                int bit = (1 << nbr) & ALL_NUMBERS;
+                dead[l] |= ((used[row + l] | used[col + l] | used[box + l]) & bit) != 0;
+                used[row + l] |= bit;
+                used[col + l] |= bit;
+                used[box + l] |= bit;
+                grid[i * LANES + l] = (byte) nbr;
+                filled[l] += bit >>> nbr;
+            }
+        }
+    }
+
+    /**
+     * Private helpmethod filling in naked and hidden singles in every live lane until no lane makes progress.
+     * A lane where a box or a missing number has no valid place left is marked dead.
+     */
+    private void propagate() {
+        boolean anyProgress = true;
+        while (anyProgress) {
+            Arrays.fill(progress, false);
+            for (int i = 0; i < 81; i++) {
+                int row = ROW[i] * LANES;
+                int col = COL[i] * LANES;
+                int box = BOX[i] * LANES;
+                int base = i * LANES;
+                for (int l = 0; l < LANES; l++) {
+                    int free = ~(used[row + l] | used[col + l] | used[box + l]) & ALL_NUMBERS;
+                    boolean empty = grid[base + l] == 0 && !dead[l];
+                    boolean single = empty && free != 0 && (free & (free - 1)) == 0;
+                    dead[l] |= empty && free == 0;
+                    int bit = single ? free : 0;
+                    used[row + l] |= bit;
+                    used[col + l] |= bit;
+                    used[box + l] |= bit;
+                    grid[base + l] = single ? (byte) Integer.numberOfTrailingZeros(free) : grid[base + l];
+                    filled[l] += bit != 0 ? 1 : 0;
+                    progress[l] |= single;
+                }
+            }
+            for (int u = 0; u < 27; u++) {
+                hiddenSingles(u);
+            }
+            anyProgress = false;
+            for (int l = 0; l < LANES; l++) {
+                anyProgress |= progress[l] && !dead[l] && filled[l] < 81;
+            }
+        }
+    }
+
+    /**
+     * Private helpmethod filling in the hidden singles of one unit in every live lane
+     *
+     * @param u index in UNITS of the unit
+     */
+    private void hiddenSingles(int u) {
+        int unit = u * LANES;
+        for (int l = 0; l < LANES; l++) {
+            int once = 0;
+            int twice = 0;
+            for (int i : UNITS[u]) {
+                int free = grid[i * LANES + l] != 0 ? 0
+                        : ~(used[ROW[i] * LANES + l] | used[COL[i] * LANES + l] | used[BOX[i] * LANES + l]);
+                twice |= once & free;
+                once |= free;
+            }
+            int missing = ~used[unit + l] & ALL_NUMBERS;
+            dead[l] |= (missing & ~once) != 0;
+            int hidden = missing & once & ~twice;
+            if (hidden != 0 && !dead[l]) {
+                placeHidden(u, l, hidden);
+            }
+        }
+    }
+
+    /**
+     * Private helpmethod placing the numbers that have one valid box left in a unit of one lane
+     *
+     * @param u      index in UNITS of the unit
+     * @param l      the lane
+     * @param hidden bitmask of the numbers to place
+     */
+    private void placeHidden(int u, int l, int hidden) {
+        for (int i : UNITS[u]) {
+            int row = ROW[i] * LANES + l;
+            int col = COL[i] * LANES + l;
+            int box = BOX[i] * LANES + l;
+            int bit = grid[i * LANES + l] != 0 ? 0 : hidden & ~(used[row] | used[col] | used[box]);
+            if (bit != 0) {
+                if ((bit & (bit - 1)) != 0) {
+                    dead[l] = true;
+                    return;
+                }
+                used[row] |= bit;
+                used[col] |= bit;
+                used[box] |= bit;
+                grid[i * LANES + l] = (byte) Integer.numberOfTrailingZeros(bit);
+                filled[l]++;
+                progress[l] = true;
+            }
+        }
+    }
+
+    /**
+     * Private helpmethod solving one lane with the fallback solver, starting from the numbers propagation
+     * filled in, and writing the solution to cells
+     *
+     * @param l      the lane
+     * @param cells  the sudokus
+     * @param offset the index in cells of the first number of the lane's sudoku
+     * @return true if the sudoku was solved
+     */
+    private boolean guess(int l, byte[] cells, int offset) {
+        fallbackCount++;
+        for (int i = 0; i < 81; i++) {
+            lane[i] = grid[i * LANES + l];
+        }
+        fallback.setCells(lane, 0);
+        if (!fallback.solve()) {
+            return false;
+        }
+        fallback.getCells(cells, offset);
+        return true;
+    }
+}
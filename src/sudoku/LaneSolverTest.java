@@ -0,0 +1,100 @@
+package sudoku;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for testing the solver that propagates several sudokus in lock-step.
+ */
+class LaneSolverTest {
+
+    /**
+     * Private helpmethod parsing sudokus into one array, after offset unused numbers
+     */
+    private static byte[] cells(int offset, String... lines) {
+        byte[] cells = new byte[offset + lines.length * 81];
+        for (int k = 0; k < lines.length; k++) {
+            for (int i = 0; i < 81; i++) {
+                char ch = lines[k].charAt(i);
+                cells[offset + k * 81 + i] = (byte) (ch == '.' ? 0 : ch - '0');
+            }
+        }
+        return cells;
+    }
+
+    @Test
+    void testSameAsClassic() {
+        List<int[][]> puzzles;
+        try (PuzzleGenerator generator = new PuzzleGenerator(1)) {
+            puzzles = generator.generateAll(2 * LaneSolver.LANES + 5, 7);
+        }
+        byte[] cells = new byte[puzzles.size() * 81];
+        for (int k = 0; k < puzzles.size(); k++) {
+            for (int i = 0; i < 81; i++) {
+                cells[k * 81 + i] = (byte) puzzles.get(k)[i / 9][i % 9];
+            }
+        }
+        boolean[] solved = new boolean[puzzles.size()];
+        LaneSolver lanes = new LaneSolver();
+        assertEquals(lanes.solveAll(cells, 0, puzzles.size(), solved), puzzles.size());
+
+        ClassicSudokuSolver classic = new ClassicSudokuSolver();
+        byte[] expected = new byte[81];
+        for (int k = 0; k < puzzles.size(); k++) {
+            assertTrue(solved[k]);
+            classic.setMatrix(puzzles.get(k));
+            assertTrue(classic.solve());
+            classic.getCells(expected, 0);
+            for (int i = 0; i < 81; i++) {
+                assertEquals(cells[k * 81 + i], expected[i]);
+            }
+        }
+    }
+
+    @Test
+    void testMixedBatch() {
+        byte[] cells = cells(3, TestPuzzles.EASY_LINE, TestPuzzles.NO_PLACE_FOR_SEVEN_LINE, TestPuzzles.HARD_LINE,
+                TestPuzzles.DUPLICATE_LINE, TestPuzzles.EASY_LINE);
+        byte[] original = cells.clone();
+        boolean[] solved = new boolean[5];
+        LaneSolver lanes = new LaneSolver();
+        assertEquals(lanes.solveAll(cells, 3, 5, solved), 3);
+        assertTrue(solved[0]);
+        assertFalse(solved[1]);
+        assertTrue(solved[2]);
+        assertFalse(solved[3]);
+        assertTrue(solved[4]);
+        assertEquals(lanes.getFallbackCount(), 1);
+
+        for (int i = 81; i < 162; i++) {
+            assertEquals(cells[3 + i], original[3 + i]);
+            assertEquals(cells[3 + 2 * 81 + i], original[3 + 2 * 81 + i]);
+        }
+        ClassicSudokuSolver check = new ClassicSudokuSolver();
+        for (int k : new int[]{0, 2, 4}) {
+            check.setCells(cells, 3 + k * 81);
+            assertTrue(check.isAllValid());
+            for (int i = 0; i < 81; i++) {
+                assertNotEquals(cells[3 + k * 81 + i], 0);
+                if (original[3 + k * 81 + i] != 0) {
+                    assertEquals(cells[3 + k * 81 + i], original[3 + k * 81 + i]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testBounds() {
+        LaneSolver lanes = new LaneSolver();
+        assertEquals(lanes.solveAll(new byte[0], 0, 0, null), 0);
+        assertThrows(IllegalArgumentException.class, () -> lanes.solveAll(new byte[161], 0, 2, null));
+        assertThrows(IllegalArgumentException.class, () -> lanes.solveAll(new byte[162], 0, 2, new boolean[1]));
+        byte[] invalid = new byte[81];
+        invalid[80] = 10;
+        assertThrows(IllegalArgumentException.class, () -> lanes.solveAll(invalid, 0, 1, null));
+        assertThrows(IllegalArgumentException.class, () -> new LaneSolver(new GeneralSudokuSolver(4)));
+    }
+}
@@ -0,0 +1,179 @@
+package sudoku;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for testing the nogood cache and its use by the classic sudoku solver.
+ */
+class NogoodCacheTest {
+    NogoodCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new NogoodCache(1 << 16);
+    }
+
+    @Test
+    void testSameSolutionWithCache() {
+        for (SearchStrategy strategy : SearchStrategy.values()) {
+            ClassicSudokuSolver plain = new ClassicSudokuSolver(strategy);
+            ClassicSudokuSolver cached = new ClassicSudokuSolver(strategy);
+            cached.setNogoodCache(cache);
+            plain.setMatrix(TestPuzzles.HARD);
+            cached.setMatrix(TestPuzzles.HARD);
+            assertEquals(cached.countSolutions(2), 1);
+            assertTrue(plain.solve());
+            assertTrue(cached.solve());
+            int[][] matrixTrue = plain.getMatrix();
+            int[][] matrixResult = cached.getMatrix();
+            for (int i = 0; i < 9; i++) {
+                assertArrayEquals(matrixTrue[i], matrixResult[i]);
+            }
+        }
+        assertTrue(cache.getHits() > 0);
+        assertTrue(cache.getHitRate() > 0 && cache.getHitRate() < 1);
+    }
+
+    @Test
+    void testSolveAfterCountIsPruned() {
+        ClassicSudokuSolver solver = new ClassicSudokuSolver(SearchStrategy.MOST_CONSTRAINED);
+        solver.setMatrix(TestPuzzles.HARD);
+        assertTrue(solver.solve());
+        long nodes = solver.getSearchStats().getNodes();
+
+        solver.setNogoodCache(cache);
+        solver.setMatrix(TestPuzzles.HARD);
+        assertEquals(solver.countSolutions(2), 1);
+        assertEquals(solver.getSearchStats().getPruned(), 0);
+        assertTrue(solver.solve());
+        assertTrue(solver.getSearchStats().getPruned() > 0);
+        assertTrue(solver.getSearchStats().getNodes() < nodes);
+        assertTrue(solver.isAllValid());
+    }
+
+    @Test
+    void testUnsolvableIsRemembered() {
+        for (SearchStrategy strategy : new SearchStrategy[]{SearchStrategy.MOST_CONSTRAINED, SearchStrategy.DEDUCTION}) {
+            ClassicSudokuSolver solver = new ClassicSudokuSolver(strategy);
+            solver.setNogoodCache(new NogoodCache(1 << 16));
+            TestPuzzles.setPuzzle(solver, TestPuzzles.UNSOLVABLE);
+            assertFalse(solver.solve());
+            assertEquals(solver.getSearchStats().getPruned(), 0);
+
+            assertFalse(solver.solve());
+            assertEquals(solver.getSearchStats().getPruned(), 1);
+            assertEquals(solver.getSearchStats().getNodes(), 1);
+            assertEquals(solver.getNumber(0, 5), 5);
+            assertEquals(solver.getNumber(0, 0), 0);
+        }
+    }
+
+    @Test
+    void testCacheIsSharedBetweenSolvers() {
+        ClassicSudokuSolver first = new ClassicSudokuSolver(SearchStrategy.MOST_CONSTRAINED);
+        first.setNogoodCache(cache);
+        TestPuzzles.setPuzzle(first, TestPuzzles.UNSOLVABLE);
+        assertFalse(first.solve());
+
+        ClassicSudokuSolver second = new ClassicSudokuSolver(SearchStrategy.DEDUCTION);
+        SearchStatsAggregator statistics = new SearchStatsAggregator();
+        second.setSearchListener(statistics);
+        second.setNogoodCache(cache);
+        TestPuzzles.setPuzzle(second, TestPuzzles.UNSOLVABLE);
+        assertFalse(second.solve());
+        assertEquals(second.getSearchStats().getNodes(), 1);
+        assertEquals(second.countSolutions(1), 0);
+        assertEquals(second.getSearchStats().getPruned(), 1);
+        assertEquals(statistics.getPruned(), 2);
+    }
+
+    @Test
+    void testHashFollowsEdits() {
+        ClassicSudokuSolver solver = new ClassicSudokuSolver(SearchStrategy.MOST_CONSTRAINED);
+        solver.setNogoodCache(cache);
+        TestPuzzles.setPuzzle(solver, TestPuzzles.UNSOLVABLE);
+        assertFalse(solver.solve());
+
+        solver.clearNumber(0, 5);
+        assertTrue(solver.solve());
+        TestPuzzles.setPuzzle(solver, TestPuzzles.UNSOLVABLE);
+        solver.clearNumber(0, 5);
+        solver.setNumber(0, 5, 5);
+        assertFalse(solver.solve());
+        assertEquals(solver.getSearchStats().getPruned(), 1);
+
+        solver.setNogoodCache(null);
+        assertFalse(solver.solve());
+        assertEquals(solver.getSearchStats().getPruned(), 0);
+    }
+
+    @Test
+    void testMemoryIsBounded() {
+        NogoodCache small = new NogoodCache(256);
+        assertEquals(small.capacity(), 32);
+        assertEquals(small.getBytes(), 256L);
+        ClassicSudokuSolver solver = new ClassicSudokuSolver(SearchStrategy.MOST_CONSTRAINED);
+        solver.setNogoodCache(small);
+        solver.setMatrix(TestPuzzles.HARD);
+        assertEquals(solver.countSolutions(2), 1);
+        assertTrue(small.getEvictions() > 0);
+        assertTrue(small.size() <= small.capacity());
+        assertEquals(small.getStores(), small.size() + small.getEvictions());
+        assertEquals(small.getBytes(), 256L);
+
+        small.clear();
+        assertEquals(small.size(), 0);
+        assertTrue(small.getStores() > 0);
+        assertEquals(new NogoodCache(100).capacity(), 8);
+    }
+
+    @Test
+    void testOnlyShallowGridsAreStored() {
+        NogoodCache rootOnly = new NogoodCache(1 << 16, 0);
+        assertEquals(rootOnly.getMaxDepth(), 0);
+        assertEquals(cache.getMaxDepth(), NogoodCache.DEFAULT_MAX_DEPTH);
+        ClassicSudokuSolver solver = new ClassicSudokuSolver(SearchStrategy.MOST_CONSTRAINED);
+        solver.setNogoodCache(rootOnly);
+        TestPuzzles.setPuzzle(solver, TestPuzzles.UNSOLVABLE);
+        assertFalse(solver.solve());
+        assertEquals(rootOnly.size(), 1);
+        assertEquals(rootOnly.getHits() + rootOnly.getMisses(), 1);
+        assertFalse(solver.solve());
+        assertEquals(solver.getSearchStats().getPruned(), 1);
+
+        solver.setNogoodCache(cache);
+        TestPuzzles.setPuzzle(solver, TestPuzzles.UNSOLVABLE);
+        assertFalse(solver.solve());
+        assertTrue(cache.size() > 1);
+        assertTrue(cache.getStores() < solver.getSearchStats().getNodes());
+    }
+
+    @Test
+    void testLeastRecentlyUsedIsEvicted() {
+        NogoodCache pair = new NogoodCache(16);
+        assertEquals(pair.capacity(), 2);
+        assertFalse(pair.contains(0));
+        pair.add(0);
+        pair.add(2);
+        assertTrue(pair.contains(0));
+        pair.add(3);
+        assertEquals(pair.getEvictions(), 1);
+        assertTrue(pair.contains(0));
+        assertTrue(pair.contains(3));
+        assertFalse(pair.contains(2));
+        assertEquals(pair.size(), 2);
+        assertEquals(pair.getHits(), 3);
+        assertEquals(pair.getMisses(), 2);
+    }
+
+    @Test
+    void testIllegalSize() {
+        assertThrows(IllegalArgumentException.class, () -> new NogoodCache(15));
+        assertThrows(IllegalArgumentException.class, () -> new NogoodCache(-1));
+        assertThrows(IllegalArgumentException.class, () -> new NogoodCache((8L << 30) + 8));
+        assertThrows(IllegalArgumentException.class, () -> new NogoodCache(1 << 16, -1));
+    }
+}
@@ -0,0 +1,360 @@
+package sudoku;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A <code>SudokuSolver</code> for classic nine-by-nine sudokus that searches one sudoku on many threads.
+ * <p>
+ * The search tree of the most-constrained search is split at its first branch points into fork-join tasks,
+ * each with its own copy of the 81 numbers, and every task searches its part with a
+ * <code>ClassicSudokuSolver</code> of the worker thread it runs on. A task only splits further while its worker
+ * has few queued tasks left, so idle workers steal shallow parts of the tree instead of many tiny ones.
+ * The first task to find a solution cancels the others, and <code>countSolutions</code> sums the solutions of
+ * all tasks. A sudoku with several solutions can therefore be solved differently from run to run.
+ */
+public class ParallelSudokuSolver implements SudokuSolver, AutoCloseable {
+    /**
+     * The deepest branch point at which the search is split into tasks
+     */
+    private static final int MAX_SPLIT_DEPTH = 8;
+
+    /**
+     * A task is split further only while its worker has at most this many queued tasks that nobody stole
+     */
+    private static final int MAX_SURPLUS_TASKS = 2;
+
+    private final ClassicSudokuSolver grid = new ClassicSudokuSolver(SearchStrategy.MOST_CONSTRAINED);
+    private final ForkJoinPool pool;
+    private final boolean ownsPool;
+    private final ThreadLocal<ClassicSudokuSolver> solvers =
+            ThreadLocal.withInitial(() -> new ClassicSudokuSolver(SearchStrategy.MOST_CONSTRAINED));
+    private final byte[] cells = new byte[81];
+    private BooleanSupplier cancellationCheck;
+
+    /**
+     * Constructs new ParallelSudokuSolver searching on the common fork-join pool
+     */
+    public ParallelSudokuSolver() {
+        pool = ForkJoinPool.commonPool();
+        ownsPool = false;
+    }
+
+    /**
+     * Constructs new ParallelSudokuSolver searching on its own pool of worker threads
+     *
+     * @param parallelism the number of worker threads
+     * @throws IllegalArgumentException if parallelism is less than 1
+     */
+    public ParallelSudokuSolver(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism is less than 1");
+        }
+        pool = new ForkJoinPool(parallelism);
+        ownsPool = true;
+    }
+
+    /**
+     * Sets the number nbr in box r, c.
+     *
+     * @param r   The row
+     * @param c   The column
+     * @param nbr The number to insert in box r, c
+     * @throws IllegalArgumentException if r or c are out of bounds [0..8] or nbr is outside [1..9]
+     */
+    public void setNumber(int r, int c, int nbr) {
+        grid.setNumber(r, c, nbr);
+    }
+
+    /**
+     * Returns the number in box r,c. If the box is empty 0 is returned.
+     *
+     * @param r The row
+     * @param c The column
+     * @return the number in box r,c or 0 if the box is empty.
+     * @throws IllegalArgumentException if r or c are out of bounds [0..8]
+     */
+    public int getNumber(int r, int c) {
+        return grid.getNumber(r, c);
+    }
+
+    /**
+     * Clears the number in box r,c (sets it to 0)
+     *
+     * @param r The row
+     * @param c The column
+     * @throws IllegalArgumentException if r or c are out of bounds [0..8]
+     */
+    public void clearNumber(int r, int c) {
+        grid.clearNumber(r, c);
+    }
+
+    /**
+     * Checks if value nbr is valid in box r,c
+     *
+     * @param r   The row
+     * @param c   The column
+     * @param nbr The number to check
+     * @return true if number is valid in box r,c, false if not
+     * @throws IllegalArgumentException if r,c out of bounds [0..8] or nbr is outside of [1..9]
+     */
+    public boolean isValid(int r, int c, int nbr) {
+        return grid.isValid(r, c, nbr);
+    }
+
+    /**
+     * Checks if all values in the grid are valid.
+     *
+     * @return true if all values are valid, false if any value is not valid
+     */
+    public boolean isAllValid() {
+        return grid.isAllValid();
+    }
+
+    /**
+     * Tries to solve the sudoku on all worker threads.
+     *
+     * @return true if it was solved, false if not solvable
+     * @throws CancellationException if the cancellation check returned true. The grid is left unchanged.
+     */
+    public boolean solve() {
+        Search search = search(1);
+        byte[] solution = search.solution.get();
+        if (solution != null) {
+            grid.setCells(solution, 0);
+        }
+        return solution != null;
+    }
+
+    /**
+     * Counts the solutions of the sudoku on all worker threads, stopping as soon as limit solutions have
+     * been found. The grid is left unchanged.
+     *
+     * @param limit the maximum number of solutions to count
+     * @return the number of solutions, at most limit
+     * @throws IllegalArgumentException if limit is less than 1
+     * @throws CancellationException    if the cancellation check returned true
+     */
+    public int countSolutions(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit is less than 1");
+        }
+        return Math.min(search(limit).found.get(), limit);
+    }
+
+    /**
+     * Sets a condition that is polled regularly while searching. As soon as it returns true, the search
+     * stops and a <code>CancellationException</code> is thrown. The condition is polled from the worker
+     * threads, so it has to be thread-safe.
+     *
+     * @param cancellationCheck the condition, or null to never cancel
+     */
+    public void setCancellationCheck(BooleanSupplier cancellationCheck) {
+        this.cancellationCheck = cancellationCheck;
+    }
+
+    /**
+     * Clears the sudoku.
+     */
+    public void clear() {
+        grid.clear();
+    }
+
+    /**
+     * Returns the numbers in the grid. An empty box is represented
+     * by the value 0.
+     *
+     * @return the numbers in the grid
+     */
+    public int[][] getMatrix() {
+        return grid.getMatrix();
+    }
+
+    /**
+     * Fills the grid with the numbers in nbrs.
+     *
+     * @param nbrs the matrix with the numbers to insert
+     * @throws IllegalArgumentException if nbrs have wrong dimension or containing values not in [0..9]
+     */
+    public void setMatrix(int[][] nbrs) {
+        grid.setMatrix(nbrs);
+    }
+
+    /**
+     * Copies the numbers in the grid row by row into dst, starting at offset. An empty box is
+     * represented by the value 0.
+     *
+     * @param dst    the array to copy the 81 numbers to
+     * @param offset the index in dst of the number in box 0,0
+     * @throws IllegalArgumentException if the 81 numbers do not fit in dst at offset
+     */
+    public void getCells(byte[] dst, int offset) {
+        grid.getCells(dst, offset);
+    }
+
+    /**
+     * Fills the grid row by row with the 81 numbers in src starting at offset.
+     *
+     * @param src    the array with the numbers to insert, 0 for an empty box
+     * @param offset the index in src of the number for box 0,0
+     * @throws IllegalArgumentException if src has fewer than 81 numbers at offset or contains values not in [0..9]
+     */
+    public void setCells(byte[] src, int offset) {
+        grid.setCells(src, offset);
+    }
+
+    /**
+     * Shuts down the worker threads if the solver has its own pool. The common pool is left running.
+     */
+    @Override
+    public void close() {
+        if (ownsPool) {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Private helpmethod searching the grid on the pool until limit solutions are found or the tree is exhausted
+     *
+     * @param limit the number of solutions to stop at
+     * @return the finished search
+     * @throws CancellationException if the cancellation check returned true
+     */
+    private Search search(int limit) {
+        Search search = new Search(limit, cancellationCheck);
+        if (search.isDone()) {
+            throw new CancellationException("Search was cancelled");
+        }
+        grid.getCells(cells, 0);
+        pool.invoke(new SearchTask(search, cells.clone(), 0));
+        if (search.cancelled) {
+            throw new CancellationException("Search was cancelled");
+        }
+        return search;
+    }
+
+    /**
+     * The state shared by all tasks of one search
+     */
+    private static class Search {
+        private final int limit;
+        private final BooleanSupplier cancellationCheck;
+        private final AtomicInteger found = new AtomicInteger();
+        private final AtomicReference<byte[]> solution = new AtomicReference<>();
+        private volatile boolean cancelled;
+
+        /**
+         * Constructs new Search
+         *
+         * @param limit             the number of solutions to stop at
+         * @param cancellationCheck the condition cancelling the search, or null
+         */
+        private Search(int limit, BooleanSupplier cancellationCheck) {
+            this.limit = limit;
+            this.cancellationCheck = cancellationCheck;
+        }
+
+        /**
+         * Checks if the tasks should stop, because enough solutions were found or the search was cancelled
+         *
+         * @return true if the tasks should stop
+         */
+        private boolean isDone() {
+            if (!cancelled && cancellationCheck != null && cancellationCheck.getAsBoolean()) {
+                cancelled = true;
+            }
+            return cancelled || found.get() >= limit;
+        }
+
+        /**
+         * Records a solution. Only the first solution is kept.
+         *
+         * @param cells the solved grid, row by row
+         */
+        private void solved(byte[] cells) {
+            if (solution.compareAndSet(null, cells)) {
+                found.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Searches the part of the tree below one branch point, splitting it into more tasks while the
+     * worker thread has few queued tasks
+     */
+    private class SearchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Search search;
+        private final byte[] cells;
+        private final int depth;
+
+        /**
+         * Constructs new SearchTask
+         *
+         * @param search the search the task belongs to
+         * @param cells  the numbers of the grid at the branch point, owned by the task
+         * @param depth  the number of branch points above this one
+         */
+        private SearchTask(Search search, byte[] cells, int depth) {
+            this.search = search;
+            this.cells = cells;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            if (search.isDone()) {
+                return;
+            }
+            ClassicSudokuSolver solver = solvers.get();
+            solver.setCells(cells, 0);
+            if (depth == 0 || (depth < MAX_SPLIT_DEPTH && getSurplusQueuedTaskCount() <= MAX_SURPLUS_TASKS)) {
+                int[] boxes = new int[9];
+                int[] numbers = new int[9];
+                int count = solver.listBranches(boxes, numbers);
+                if (count < 0 && search.limit == 1) {
+                    search.solved(cells);
+                    return;
+                } else if (count < 0) {
+                    search.found.incrementAndGet();
+                    return;
+                }
+                List<SearchTask> tasks = new ArrayList<>(count);
+                for (int k = 0; k < count; k++) {
+                    byte[] child = cells.clone();
+                    child[boxes[k]] = (byte) numbers[k];
+                    tasks.add(new SearchTask(search, child, depth + 1));
+                }
+                invokeAll(tasks);
+                return;
+            }
+
+            solver.setCancellationCheck(search::isDone);
+            try {
+                if (search.limit == 1) {
+                    if (solver.solve()) {
+                        byte[] solution = new byte[81];
+                        solver.getCells(solution, 0);
+                        search.solved(solution);
+                    }
+                } else {
+                    int remaining = search.limit - search.found.get();
+                    if (remaining > 0) {
+                        search.found.addAndGet(solver.countSolutions(remaining));
+                    }
+                }
+            } catch (CancellationException ignored) {
+                // another task reached the limit first, or the whole search was cancelled
+            } finally {
+                solver.setCancellationCheck(null);
+            }
+        }
+    }
+}
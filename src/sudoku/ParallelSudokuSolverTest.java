@@ -0,0 +1,103 @@
+package sudoku;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for testing the sudoku solver that searches on many threads.
+ */
+class ParallelSudokuSolverTest {
+    ParallelSudokuSolver solver;
+
+    @BeforeEach
+    void setUp() {
+        solver = new ParallelSudokuSolver(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        solver.close();
+    }
+
+    @Test
+    void testSolveSameAsSequential() {
+        ClassicSudokuSolver sequential = new ClassicSudokuSolver(SearchStrategy.MOST_CONSTRAINED);
+        sequential.setMatrix(TestPuzzles.HARD);
+        assertTrue(sequential.solve());
+
+        for (int run = 0; run < 20; run++) {
+            solver.setMatrix(TestPuzzles.HARD);
+            assertTrue(solver.solve());
+            assertArrayEquals(solver.getMatrix(), sequential.getMatrix());
+        }
+    }
+
+    @Test
+    void testEmptySudoku() {
+        assertTrue(solver.solve());
+        assertTrue(solver.isAllValid());
+        for (int r = 0; r < 9; r++) {
+            for (int c = 0; c < 9; c++) {
+                assertNotEquals(solver.getNumber(r, c), 0);
+            }
+        }
+        assertEquals(solver.countSolutions(2), 1);
+    }
+
+    @Test
+    void testUnsolvableLeavesGrid() {
+        for (int c = 0; c < 8; c++) {
+            solver.setNumber(0, c, c + 1);
+        }
+        solver.setNumber(4, 8, 9);
+        assertTrue(solver.isAllValid());
+        assertFalse(solver.solve());
+        assertEquals(solver.getNumber(0, 8), 0);
+        assertEquals(solver.getNumber(0, 0), 1);
+        assertEquals(solver.countSolutions(5), 0);
+
+        solver.setNumber(1, 1, 1);
+        assertFalse(solver.solve());
+    }
+
+    @Test
+    void testCountSolutions() {
+        int[][] puzzle = new int[9][9];
+        for (int r = 0; r < 9; r++) {
+            System.arraycopy(TestPuzzles.HARD[r], 0, puzzle[r], 0, 9);
+        }
+        puzzle[0][0] = 0;
+        puzzle[4][4] = 0;
+        ClassicSudokuSolver sequential = new ClassicSudokuSolver();
+        sequential.setMatrix(puzzle);
+        int expected = sequential.countSolutions(1000);
+        assertTrue(expected > 1);
+
+        solver.setMatrix(puzzle);
+        assertEquals(solver.countSolutions(1000), expected);
+        assertEquals(solver.countSolutions(expected - 1), expected - 1);
+        assertEquals(solver.countSolutions(1), 1);
+        assertArrayEquals(solver.getMatrix(), puzzle);
+
+        solver.clear();
+        assertEquals(solver.countSolutions(2000), 2000);
+        assertThrows(IllegalArgumentException.class, () -> solver.countSolutions(0));
+    }
+
+    @Test
+    void testCancellation() {
+        solver.setMatrix(TestPuzzles.HARD);
+        solver.setCancellationCheck(() -> true);
+        assertThrows(CancellationException.class, solver::solve);
+        assertThrows(CancellationException.class, () -> solver.countSolutions(2));
+        assertArrayEquals(solver.getMatrix(), TestPuzzles.HARD);
+
+        solver.setCancellationCheck(null);
+        assertTrue(solver.hasUniqueSolution());
+    }
+}
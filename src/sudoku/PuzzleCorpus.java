@@ -0,0 +1,113 @@
+package sudoku;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A corpus file written by <code>PuzzleCorpusWriter</code>, mapped into memory for random access.
+ * <p>
+ * Any sudoku can be loaded by its number in constant time through the index at the end of the file. Loading
+ * decodes straight from the mapped buffer into one reused array, so it does not allocate anything.
+ * A PuzzleCorpus must not be used by several threads at the same time; open one per thread instead.
+ */
+public class PuzzleCorpus implements Closeable {
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int count;
+    private final int indexPosition;
+    private final byte[] cells;
+
+    /**
+     * Constructs new PuzzleCorpus mapping the file at path
+     *
+     * @param path the corpus file
+     * @throws IOException              if the file could not be opened or mapped
+     * @throws IllegalArgumentException if the file is not a corpus file
+     */
+    public PuzzleCorpus(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < PuzzleCorpusWriter.HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("File is not a corpus file");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            count = buffer.getInt(4);
+            indexPosition = buffer.getInt(8);
+            if (buffer.getInt(0) != PuzzleCorpusWriter.MAGIC || count < 0 || indexPosition < 0
+                    || indexPosition + 4L * count != size) {
+                throw new IllegalArgumentException("File is not a corpus file");
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        cells = new byte[81];
+    }
+
+    /**
+     * Returns the number of sudokus in the corpus
+     *
+     * @return the number of sudokus
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Loads sudoku number index into solver. The solver is cleared first.
+     *
+     * @param index  the number of the sudoku, counting from 0
+     * @param solver the solver to fill
+     * @throws IndexOutOfBoundsException if index is outside [0..size() - 1]
+     */
+    public void load(int index, SudokuSolver solver) {
+        get(index, cells, 0);
+        solver.setCells(cells, 0);
+    }
+
+    /**
+     * Copies the numbers of sudoku number index row by row into dst, starting at offset
+     *
+     * @param index  the number of the sudoku, counting from 0
+     * @param dst    the array to copy the 81 numbers to, 0 for an empty box
+     * @param offset the index in dst of the number in box 0,0
+     * @throws IndexOutOfBoundsException if index is outside [0..size() - 1]
+     * @throws IllegalArgumentException  if the 81 numbers do not fit in dst at offset
+     */
+    public void get(int index, byte[] dst, int offset) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("index " + index + " is outside the corpus");
+        } else if (offset < 0 || offset > dst.length - 81) {
+            throw new IllegalArgumentException("dst has no room for 81 numbers at offset");
+        }
+        int position = buffer.getInt(indexPosition + 4 * index);
+        int numbers = position + PuzzleCorpusWriter.MASK_SIZE;
+        int k = 0;
+        for (int m = 0; m < PuzzleCorpusWriter.MASK_SIZE; m++) {
+            int mask = buffer.get(position + m);
+            for (int bit = 0; bit < 8 && m * 8 + bit < 81; bit++) {
+                if ((mask & (1 << bit)) == 0) {
+                    dst[offset + m * 8 + bit] = 0;
+                } else {
+                    dst[offset + m * 8 + bit] = (byte) ((buffer.get(numbers + k / 2) >> ((k & 1) * 4)) & 0xF);
+                    k++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Closes the file. The mapping stays valid until it is garbage collected.
+     *
+     * @throws IOException if closing fails
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
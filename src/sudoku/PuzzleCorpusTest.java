@@ -0,0 +1,89 @@
+package sudoku;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for testing the memory-mapped corpus format.
+ */
+class PuzzleCorpusTest {
+
+    Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.createTempFile("puzzles", ".sdk");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void testRandomAccess() throws IOException {
+        Random random = new Random(1);
+        byte[][] grids = new byte[5000][81];
+        try (PuzzleCorpusWriter writer = new PuzzleCorpusWriter(file)) {
+            for (byte[] grid : grids) {
+                double empty = random.nextDouble();
+                for (int i = 0; i < 81; i++) {
+                    grid[i] = random.nextDouble() < empty ? 0 : (byte) (1 + random.nextInt(9));
+                }
+                writer.write(grid, 0);
+            }
+            assertEquals(writer.size(), grids.length);
+        }
+
+        byte[] cells = new byte[82];
+        try (PuzzleCorpus corpus = new PuzzleCorpus(file)) {
+            assertEquals(corpus.size(), grids.length);
+            for (int index = grids.length - 1; index >= 0; index -= 7) {
+                corpus.get(index, cells, 1);
+                for (int i = 0; i < 81; i++) {
+                    assertEquals(cells[1 + i], grids[index][i]);
+                }
+            }
+            assertThrows(IndexOutOfBoundsException.class, () -> corpus.get(grids.length, cells, 0));
+            assertThrows(IllegalArgumentException.class, () -> corpus.get(0, cells, 2));
+        }
+    }
+
+    @Test
+    void testLoadAndSolve() throws IOException {
+        ClassicSudokuSolver solver = new ClassicSudokuSolver();
+        try (PuzzleCorpusWriter writer = new PuzzleCorpusWriter(file)) {
+            solver.clear();
+            writer.write(solver);
+            TestPuzzles.setPuzzle(solver, TestPuzzles.EASY_LINE);
+            writer.write(solver);
+        }
+        assertEquals(Files.size(file), PuzzleCorpusWriter.HEADER_SIZE + 2 * PuzzleCorpusWriter.MASK_SIZE + 13 + 2 * 4);
+
+        try (PuzzleCorpus corpus = new PuzzleCorpus(file)) {
+            corpus.load(1, solver);
+            assertTrue(solver.solve());
+            byte[] cells = new byte[81];
+            solver.getCells(cells, 0);
+            for (int i = 0; i < 81; i++) {
+                assertEquals(cells[i], TestPuzzles.EASY_SOLUTION_LINE.charAt(i) - '0');
+            }
+            corpus.load(0, solver);
+            assertEquals(solver.getNumber(0, 2), 0);
+        }
+    }
+
+    @Test
+    void testNotACorpusFile() throws IOException {
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13});
+        assertThrows(IllegalArgumentException.class, () -> new PuzzleCorpus(file));
+    }
+}
@@ -0,0 +1,188 @@
+package sudoku;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Writes a corpus file that <code>PuzzleCorpus</code> can map into memory.
+ * <p>
+ * The file starts with a header of the magic number, the number of sudokus and the position of the index.
+ * Every sudoku is then stored as an 81 bit mask of its non-empty boxes, row by row, followed by their numbers
+ * at four bits each, so a sudoku with 25 numbers takes 24 bytes. The index at the end of the file holds the
+ * position of every sudoku. All positions are ints, so a corpus file is at most 2 GiB.
+ */
+public class PuzzleCorpusWriter implements Closeable {
+    /**
+     * The first four bytes of every corpus file, "SDK1"
+     */
+    static final int MAGIC = 0x53444B31;
+
+    /**
+     * The size of the header: magic number, number of sudokus and position of the index
+     */
+    static final int HEADER_SIZE = 12;
+
+    /**
+     * The size of the mask of non-empty boxes that starts every sudoku
+     */
+    static final int MASK_SIZE = 11;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final byte[] cells;
+    private int[] positions;
+    private int count;
+    private long position;
+
+    /**
+     * Constructs new PuzzleCorpusWriter writing to the file at path. The file is created or truncated.
+     *
+     * @param path the file to write
+     * @throws IOException if the file could not be opened
+     */
+    public PuzzleCorpusWriter(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        cells = new byte[81];
+        positions = new int[1024];
+        position = HEADER_SIZE;
+        channel.position(HEADER_SIZE);
+    }
+
+    /**
+     * Appends the grid of solver to the corpus.
+     *
+     * @param solver the solver whose grid is written
+     * @throws IOException              if writing fails
+     * @throws IllegalArgumentException if solver is not for classic nine-by-nine sudokus
+     * @throws IllegalStateException    if the corpus file would grow beyond 2 GiB
+     */
+    public void write(SudokuSolver solver) throws IOException {
+        if (solver.getDimension() != 9) {
+            throw new IllegalArgumentException("solver is not for nine-by-nine sudokus");
+        }
+        solver.getCells(cells, 0);
+        write(cells, 0);
+    }
+
+    /**
+     * Appends the 81 numbers in src starting at offset to the corpus.
+     *
+     * @param src    the numbers row by row, 0 for an empty box
+     * @param offset the index in src of the number in box 0,0
+     * @throws IOException              if writing fails
+     * @throws IllegalArgumentException if src has fewer than 81 numbers at offset or contains values not in [0..9]
+     * @throws IllegalStateException    if the corpus file would grow beyond 2 GiB
+     */
+    public void write(byte[] src, int offset) throws IOException {
+        if (offset < 0 || offset > src.length - 81) {
+            throw new IllegalArgumentException("src has fewer than 81 numbers at offset");
+        }
+        int numbers = 0;
+        for (int i = offset; i < offset + 81; i++) {
+            if (src[i] > 9 || src[i] < 0) {
+                throw new IllegalArgumentException("Value is not in [0..9]");
+            } else if (src[i] != 0) {
+                numbers++;
+            }
+        }
+        int size = MASK_SIZE + (numbers + 1) / 2;
+        if (position + size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("corpus file is full");
+        }
+        if (buffer.remaining() < size) {
+            flushBuffer();
+        }
+        if (count == positions.length) {
+            positions = Arrays.copyOf(positions, count * 2);
+        }
+        positions[count++] = (int) position;
+        position += size;
+
+        for (int m = 0; m < MASK_SIZE; m++) {
+            int mask = 0;
+            for (int bit = 0; bit < 8 && m * 8 + bit < 81; bit++) {
+                if (src[offset + m * 8 + bit] != 0) {
+                    mask |= 1 << bit;
+                }
+            }
+            buffer.put((byte) mask);
+        }
+        int pending = -1;
+        for (int i = offset; i < offset + 81; i++) {
+            if (src[i] == 0) {
+                continue;
+            } else if (pending < 0) {
+                pending = src[i];
+            } else {
+                buffer.put((byte) (pending | src[i] << 4));
+                pending = -1;
+            }
+        }
+        if (pending >= 0) {
+            buffer.put((byte) pending);
+        }
+    }
+
+    /**
+     * Returns the number of sudokus written so far
+     *
+     * @return the number of sudokus
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Writes the index and the header and closes the file.
+     *
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (position + 4L * count > Integer.MAX_VALUE) {
+                throw new IllegalStateException("corpus file is full");
+            }
+            int indexPosition = (int) position;
+            for (int i = 0; i < count; i++) {
+                if (buffer.remaining() < 4) {
+                    flushBuffer();
+                }
+                buffer.putInt(positions[i]);
+            }
+            flushBuffer();
+
+            buffer.clear();
+            buffer.putInt(MAGIC).putInt(count).putInt(indexPosition);
+            buffer.flip();
+            long at = 0;
+            while (buffer.hasRemaining()) {
+                at += channel.write(buffer, at);
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Private helpmethod writing the buffered bytes to the channel
+     *
+     * @throws IOException if writing fails
+     */
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,148 @@
+package sudoku;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Generates random sudokus with a unique solution and grades their difficulty.
+ * <p>
+ * A sudoku is generated by filling the three diagonal three-by-three areas with random permutations, solving
+ * the rest, and then removing numbers in random order as long as the sudoku keeps a unique solution. Every
+ * removal is checked with <code>countSolutions(2)</code>, which leaves the grid in place instead of copying it.
+ * The same seed always gives the same sudoku, also when many sudokus are generated in parallel.
+ */
+public class PuzzleGenerator implements AutoCloseable {
+    private final ForkJoinPool pool;
+    private final ThreadLocal<ClassicSudokuSolver> generators;
+    private final ThreadLocal<ClassicSudokuSolver> graders;
+
+    /**
+     * Constructs new PuzzleGenerator using all available processors
+     */
+    public PuzzleGenerator() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs new PuzzleGenerator with the given number of worker threads
+     *
+     * @param parallelism the number of worker threads used by <code>generateAll</code>
+     * @throws IllegalArgumentException if parallelism is less than 1
+     */
+    public PuzzleGenerator(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism is less than 1");
+        }
+        pool = new ForkJoinPool(parallelism);
+        generators = ThreadLocal.withInitial(() -> new ClassicSudokuSolver(SearchStrategy.MOST_CONSTRAINED));
+        graders = ThreadLocal.withInitial(() -> new ClassicSudokuSolver(SearchStrategy.DEDUCTION));
+    }
+
+    /**
+     * Generates one sudoku with a unique solution on the calling thread. No number can be removed from the
+     * result without losing the unique solution.
+     *
+     * @param seed the seed of the random choices
+     * @return the sudoku, with 0 for every empty box
+     */
+    public int[][] generate(long seed) {
+        Random random = new Random(seed);
+        ClassicSudokuSolver solver = generators.get();
+        solver.clear();
+        int[] order = new int[9];
+        for (int b = 0; b < 9; b += 4) {
+            shuffle(order, random);
+            for (int i = 0; i < 9; i++) {
+                solver.setNumber((b / 3) * 3 + i / 3, (b % 3) * 3 + i % 3, order[i] + 1);
+            }
+        }
+        solver.solve();
+
+        int[] boxes = new int[81];
+        shuffle(boxes, random);
+        for (int i : boxes) {
+            int nbr = solver.getNumber(i / 9, i % 9);
+            solver.clearNumber(i / 9, i % 9);
+            if (solver.countSolutions(2) != 1) {
+                solver.setNumber(i / 9, i % 9, nbr);
+            }
+        }
+        return solver.getMatrix();
+    }
+
+    /**
+     * Generates count sudokus in parallel. Sudoku i is the one <code>generate</code> returns for a seed
+     * derived from seed and i, so the result does not depend on the number of worker threads.
+     *
+     * @param count the number of sudokus
+     * @param seed  the seed of the random choices
+     * @return the sudokus
+     * @throws IllegalArgumentException if count is negative
+     */
+    public List<int[][]> generateAll(int count, long seed) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count is negative");
+        }
+        try {
+            return pool.submit(() -> LongStream.range(0, count).parallel()
+                    .mapToObj(i -> generate(seed + i * 0x9E3779B97F4A7C15L))
+                    .collect(Collectors.toList())).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while generating", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Grades a sudoku by solving it with deduction and looking at what was needed
+     *
+     * @param puzzle the sudoku, as a matrix accepted by <code>SudokuSolver.setMatrix</code>
+     * @return the difficulty of the sudoku
+     * @throws IllegalArgumentException if puzzle is rejected by <code>SudokuSolver.setMatrix</code> or is not solvable
+     */
+    public Difficulty grade(int[][] puzzle) {
+        ClassicSudokuSolver solver = graders.get();
+        solver.setMatrix(puzzle);
+        if (!solver.solve()) {
+            throw new IllegalArgumentException("puzzle is not solvable");
+        }
+        SearchStats stats = solver.getSearchStats();
+        if (stats.getGuesses() > 0) {
+            return Difficulty.HARD;
+        } else if (stats.getEliminations() > 0) {
+            return Difficulty.MEDIUM;
+        }
+        return Difficulty.EASY;
+    }
+
+    /**
+     * Shuts down the worker threads.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * Private helpmethod filling values with a random permutation of 0..values.length - 1
+     *
+     * @param values the array to fill
+     * @param random the source of randomness
+     */
+    private static void shuffle(int[] values, Random random) {
+        for (int i = 0; i < values.length; i++) {
+            int j = random.nextInt(i + 1);
+            values[i] = values[j];
+            values[j] = i;
+        }
+    }
+}
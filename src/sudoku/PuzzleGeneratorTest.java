@@ -0,0 +1,78 @@
+package sudoku;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for testing the puzzle generator.
+ */
+class PuzzleGeneratorTest {
+    PuzzleGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        generator = new PuzzleGenerator(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        generator.close();
+    }
+
+    @Test
+    void testGenerateHasUniqueSolution() {
+        int[][] puzzle = generator.generate(42);
+        ClassicSudokuSolver solver = new ClassicSudokuSolver();
+        solver.setMatrix(puzzle);
+        assertTrue(solver.isAllValid());
+        assertTrue(solver.hasUniqueSolution());
+
+        for (int r = 0; r < 9; r++) {
+            for (int c = 0; c < 9; c++) {
+                int nbr = solver.getNumber(r, c);
+                if (nbr != 0) {
+                    solver.clearNumber(r, c);
+                    assertFalse(solver.hasUniqueSolution());
+                    solver.setNumber(r, c, nbr);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testGenerateIsReproducible() {
+        assertArrayEquals(generator.generate(7), generator.generate(7));
+        assertFalse(Arrays.deepEquals(generator.generate(7), generator.generate(8)));
+    }
+
+    @Test
+    void testGenerateAllIsIndependentOfParallelism() {
+        List<int[][]> parallel = generator.generateAll(8, 3);
+        List<int[][]> sequential;
+        try (PuzzleGenerator single = new PuzzleGenerator(1)) {
+            sequential = single.generateAll(8, 3);
+        }
+        assertEquals(parallel.size(), 8);
+        for (int i = 0; i < 8; i++) {
+            assertArrayEquals(parallel.get(i), sequential.get(i));
+        }
+        assertThrows(IllegalArgumentException.class, () -> generator.generateAll(-1, 0));
+    }
+
+    @Test
+    void testGrade() {
+        assertEquals(generator.grade(TestPuzzles.EASY), Difficulty.EASY);
+        assertEquals(generator.grade(TestPuzzles.HARD), Difficulty.HARD);
+
+        int[][] unsolvable = new int[9][9];
+        unsolvable[0][0] = 1;
+        unsolvable[0][1] = 1;
+        assertThrows(IllegalArgumentException.class, () -> generator.grade(unsolvable));
+    }
+}
@@ -0,0 +1,185 @@
+package sudoku;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads sudokus in the one-per-line format: 81 characters per sudoku, row by row, with the digits 1-9 for
+ * numbers and '0' or '.' for empty boxes. Anything after the 81st character that follows a space, tab, comma
+ * or semicolon is ignored, as are blank lines and lines starting with '#'.
+ * <p>
+ * The input is read through a channel into one reused buffer and each sudoku is written directly into a
+ * <code>SudokuSolver</code> with <code>setCells</code>, so reading does not allocate anything per line.
+ */
+public class PuzzleReader implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final byte[] cells;
+    private long lineNumber;
+    private boolean endOfInput;
+
+    /**
+     * Constructs new PuzzleReader reading from the file at path
+     *
+     * @param path the file to read
+     * @throws IOException if the file could not be opened
+     */
+    public PuzzleReader(Path path) throws IOException {
+        this(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    /**
+     * Constructs new PuzzleReader reading from channel. The channel is closed when the reader is closed.
+     *
+     * @param channel the channel to read from
+     * @throws IllegalArgumentException if channel is null
+     */
+    public PuzzleReader(ReadableByteChannel channel) {
+        if (channel == null) {
+            throw new IllegalArgumentException("channel is null");
+        }
+        this.channel = channel;
+        buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        buffer.flip();
+        cells = new byte[81];
+    }
+
+    /**
+     * Reads the next sudoku into solver. The solver is cleared first.
+     *
+     * @param solver the solver to fill
+     * @return true if a sudoku was read, false if the end of the input was reached
+     * @throws IOException              if reading fails
+     * @throws IllegalArgumentException if the next non-blank line is not a valid sudoku. The line is skipped,
+     *                                  so reading can continue with the line after it.
+     */
+    public boolean next(SudokuSolver solver) throws IOException {
+        if (!next(cells, 0)) {
+            return false;
+        }
+        solver.setCells(cells, 0);
+        return true;
+    }
+
+    /**
+     * Reads the numbers of the next sudoku row by row into dst, starting at offset.
+     *
+     * @param dst    the array to copy the 81 numbers to, 0 for an empty box
+     * @param offset the index in dst of the number in box 0,0
+     * @return true if a sudoku was read, false if the end of the input was reached
+     * @throws IOException              if reading fails
+     * @throws IllegalArgumentException if the 81 numbers do not fit in dst at offset, or if the next non-blank
+     *                                  line is not a valid sudoku. The line is skipped, so reading can continue
+     *                                  with the line after it.
+     */
+    public boolean next(byte[] dst, int offset) throws IOException {
+        if (offset < 0 || offset > dst.length - 81) {
+            throw new IllegalArgumentException("dst has no room for 81 numbers at offset");
+        }
+        int b;
+        while ((b = read()) >= 0) {
+            if (b == '\r') {
+                continue;
+            }
+            lineNumber++;
+            if (b == '\n') {
+                continue;
+            } else if (b == '#') {
+                skipLine();
+                continue;
+            }
+
+            int count = 0;
+            while (b >= 0 && b != '\n') {
+                if (b == '\r') {
+                    b = read();
+                    continue;
+                } else if (count == 81) {
+                    if (b != ' ' && b != '\t' && b != ',' && b != ';') {
+                        skipLine();
+                        throw new IllegalArgumentException("Line " + lineNumber + " is longer than 81 characters");
+                    }
+                    skipLine();
+                    break;
+                } else if (b == '.' || b == '0') {
+                    dst[offset + count++] = 0;
+                } else if (b >= '1' && b <= '9') {
+                    dst[offset + count++] = (byte) (b - '0');
+                } else {
+                    skipLine();
+                    throw new IllegalArgumentException("Line " + lineNumber + " contains invalid character '"
+                            + (char) b + "'");
+                }
+                b = read();
+            }
+            if (count < 81) {
+                throw new IllegalArgumentException("Line " + lineNumber + " is shorter than 81 characters");
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of the line the last sudoku was read from, counting from 1
+     *
+     * @return the line number
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Closes the underlying channel.
+     *
+     * @throws IOException if closing fails
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Private helpmethod skipping the rest of the current line
+     *
+     * @throws IOException if reading fails
+     */
+    private void skipLine() throws IOException {
+        int b;
+        do {
+            b = read();
+        } while (b >= 0 && b != '\n');
+    }
+
+    /**
+     * Private helpmethod reading the next byte, refilling the buffer from the channel when it is empty
+     *
+     * @return the byte, or -1 at the end of the input
+     * @throws IOException if reading fails
+     */
+    private int read() throws IOException {
+        if (!buffer.hasRemaining()) {
+            if (endOfInput) {
+                return -1;
+            }
+            buffer.clear();
+            int n;
+            do {
+                n = channel.read(buffer);
+            } while (n == 0);
+            buffer.flip();
+            if (n < 0) {
+                endOfInput = true;
+                return -1;
+            }
+        }
+        return buffer.get();
+    }
+}
@@ -0,0 +1,74 @@
+package sudoku;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for testing reading and writing sudokus in the one-per-line format.
+ */
+class PuzzleReaderTest {
+
+    Path file;
+    ClassicSudokuSolver solver;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.createTempFile("puzzles", ".txt");
+        solver = new ClassicSudokuSolver();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void testReadSolveWrite() throws IOException {
+        StringBuilder input = new StringBuilder("# comment line\n");
+        for (int i = 0; i < 2000; i++) {
+            input.append(TestPuzzles.EASY_LINE).append(i % 2 == 0 ? "\n" : " 3.5\r\n");
+        }
+        Files.write(file, input.toString().getBytes(StandardCharsets.US_ASCII));
+
+        Path out = Files.createTempFile("solutions", ".txt");
+        int count = 0;
+        try (PuzzleReader reader = new PuzzleReader(file); PuzzleWriter writer = new PuzzleWriter(out)) {
+            while (reader.next(solver)) {
+                assertEquals(solver.getNumber(0, 2), 8);
+                assertEquals(solver.getNumber(0, 0), 0);
+                assertTrue(solver.solve());
+                writer.write(solver);
+                count++;
+            }
+            assertEquals(reader.getLineNumber(), 2001);
+        }
+        assertEquals(count, 2000);
+
+        String[] lines = new String(Files.readAllBytes(out), StandardCharsets.US_ASCII).split("\n");
+        Files.delete(out);
+        assertEquals(lines.length, 2000);
+        for (String line : lines) {
+            assertEquals(line, TestPuzzles.EASY_SOLUTION_LINE);
+        }
+    }
+
+    @Test
+    void testInvalidLines() throws IOException {
+        Files.write(file, (TestPuzzles.EASY_LINE.substring(1) + "\n" + TestPuzzles.EASY_LINE + "x\n"
+                + TestPuzzles.EASY_LINE.replace('8', 'a') + "\n").getBytes(StandardCharsets.US_ASCII));
+        try (PuzzleReader reader = new PuzzleReader(file)) {
+            assertThrows(IllegalArgumentException.class, () -> reader.next(solver));
+            assertThrows(IllegalArgumentException.class, () -> reader.next(solver));
+            assertThrows(IllegalArgumentException.class, () -> reader.next(solver));
+            assertFalse(reader.next(solver));
+        }
+    }
+}
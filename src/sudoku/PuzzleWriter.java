@@ -0,0 +1,119 @@
+package sudoku;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes sudokus in the one-per-line format read by <code>PuzzleReader</code>, with '0' for empty boxes.
+ * <p>
+ * Lines are collected in one reused buffer that is written to the channel when it is full, when
+ * <code>flush</code> is called and when the writer is closed.
+ */
+public class PuzzleWriter implements Closeable, Flushable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final byte[] cells;
+
+    /**
+     * Constructs new PuzzleWriter writing to the file at path. The file is created or truncated.
+     *
+     * @param path the file to write
+     * @throws IOException if the file could not be opened
+     */
+    public PuzzleWriter(Path path) throws IOException {
+        this(FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    /**
+     * Constructs new PuzzleWriter writing to channel. The channel is closed when the writer is closed.
+     *
+     * @param channel the channel to write to
+     * @throws IllegalArgumentException if channel is null
+     */
+    public PuzzleWriter(WritableByteChannel channel) {
+        if (channel == null) {
+            throw new IllegalArgumentException("channel is null");
+        }
+        this.channel = channel;
+        buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        cells = new byte[81];
+    }
+
+    /**
+     * Writes the grid of solver as one line.
+     *
+     * @param solver the solver whose grid is written
+     * @throws IOException if writing fails
+     */
+    public void write(SudokuSolver solver) throws IOException {
+        solver.getCells(cells, 0);
+        write(cells, 0);
+    }
+
+    /**
+     * Writes the 81 numbers in src starting at offset as one line.
+     *
+     * @param src    the numbers row by row, 0 for an empty box
+     * @param offset the index in src of the number in box 0,0
+     * @throws IOException              if writing fails
+     * @throws IllegalArgumentException if src has fewer than 81 numbers at offset
+     */
+    public void write(byte[] src, int offset) throws IOException {
+        if (offset < 0 || offset > src.length - 81) {
+            throw new IllegalArgumentException("src has fewer than 81 numbers at offset");
+        }
+        if (buffer.remaining() < 82) {
+            flushBuffer();
+        }
+        for (int i = offset; i < offset + 81; i++) {
+            buffer.put((byte) ('0' + src[i]));
+        }
+        buffer.put((byte) '\n');
+    }
+
+    /**
+     * Writes everything buffered so far to the channel.
+     *
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+    }
+
+    /**
+     * Flushes the buffer and closes the underlying channel.
+     *
+     * @throws IOException if writing or closing fails
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBuffer();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Private helpmethod writing the buffered bytes to the channel
+     *
+     * @throws IOException if writing fails
+     */
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,13 @@
+package sudoku;
+
+/**
+ * Receives the search effort of a solver after every call to <code>solve</code> or <code>countSolutions</code>.
+ */
+public interface SearchListener {
+    /**
+     * Called on the solving thread when a search has finished.
+     *
+     * @param stats the effort of the search. The object is reused by the solver, so it must not be kept.
+     */
+    public void searchFinished(SearchStats stats);
+}
@@ -0,0 +1,182 @@
+package sudoku;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A <code>SearchListener</code> that sums up the effort of all searches it is notified of. One instance can be
+ * registered with any number of solvers running on different threads.
+ */
+public class SearchStatsAggregator implements SearchListener {
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder solutions = new LongAdder();
+    private final LongAdder nodes = new LongAdder();
+    private final LongAdder backtracks = new LongAdder();
+    private final LongAdder candidateChecks = new LongAdder();
+    private final LongAdder deduced = new LongAdder();
+    private final LongAdder eliminations = new LongAdder();
+    private final LongAdder guesses = new LongAdder();
+    private final LongAdder pruned = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+    private final LongAccumulator maxNodes = new LongAccumulator(Long::max, 0);
+    private final LongAccumulator maxDepth = new LongAccumulator(Long::max, 0);
+    private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+
+    /**
+     * Adds the effort of one search to the totals.
+     *
+     * @param stats the effort of the search
+     */
+    @Override
+    public void searchFinished(SearchStats stats) {
+        searches.increment();
+        solutions.add(stats.getSolutions());
+        nodes.add(stats.getNodes());
+        backtracks.add(stats.getBacktracks());
+        candidateChecks.add(stats.getCandidateChecks());
+        deduced.add(stats.getDeduced());
+        eliminations.add(stats.getEliminations());
+        guesses.add(stats.getGuesses());
+        pruned.add(stats.getPruned());
+        nanos.add(stats.getNanos());
+        maxNodes.accumulate(stats.getNodes());
+        maxDepth.accumulate(stats.getMaxDepth());
+        maxNanos.accumulate(stats.getNanos());
+    }
+
+    /**
+     * Returns the number of searches recorded
+     *
+     * @return the number of searches
+     */
+    public long getSearches() {
+        return searches.sum();
+    }
+
+    /**
+     * Returns the total number of solutions found
+     *
+     * @return the number of solutions
+     */
+    public long getSolutions() {
+        return solutions.sum();
+    }
+
+    /**
+     * Returns the total number of search nodes visited
+     *
+     * @return the number of nodes
+     */
+    public long getNodes() {
+        return nodes.sum();
+    }
+
+    /**
+     * Returns the total number of backtracks
+     *
+     * @return the number of backtracks
+     */
+    public long getBacktracks() {
+        return backtracks.sum();
+    }
+
+    /**
+     * Returns the total number of candidate checks
+     *
+     * @return the number of candidate checks
+     */
+    public long getCandidateChecks() {
+        return candidateChecks.sum();
+    }
+
+    /**
+     * Returns the total number of deduced numbers
+     *
+     * @return the number of deduced numbers
+     */
+    public long getDeduced() {
+        return deduced.sum();
+    }
+
+    /**
+     * Returns the total number of candidates eliminated by locked candidates
+     *
+     * @return the number of eliminated candidates
+     */
+    public long getEliminations() {
+        return eliminations.sum();
+    }
+
+    /**
+     * Returns the total number of guesses
+     *
+     * @return the number of guesses
+     */
+    public long getGuesses() {
+        return guesses.sum();
+    }
+
+    /**
+     * Returns the total number of search nodes pruned by a <code>NogoodCache</code>
+     *
+     * @return the number of pruned nodes
+     */
+    public long getPruned() {
+        return pruned.sum();
+    }
+
+    /**
+     * Returns the total wall time of all searches in nanoseconds
+     *
+     * @return the wall time in nanoseconds
+     */
+    public long getNanos() {
+        return nanos.sum();
+    }
+
+    /**
+     * Returns the largest number of nodes visited by a single search
+     *
+     * @return the maximum number of nodes
+     */
+    public long getMaxNodes() {
+        return maxNodes.get();
+    }
+
+    /**
+     * Returns the largest depth reached by a single search
+     *
+     * @return the maximum depth
+     */
+    public long getMaxDepth() {
+        return maxDepth.get();
+    }
+
+    /**
+     * Returns the longest wall time of a single search in nanoseconds
+     *
+     * @return the maximum wall time in nanoseconds
+     */
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * Resets all totals to 0. Searches finishing while the reset is in progress may be partly lost.
+     */
+    public void reset() {
+        searches.reset();
+        solutions.reset();
+        nodes.reset();
+        backtracks.reset();
+        candidateChecks.reset();
+        deduced.reset();
+        eliminations.reset();
+        guesses.reset();
+        pruned.reset();
+        nanos.reset();
+        maxNodes.reset();
+        maxDepth.reset();
+        maxNanos.reset();
+    }
+}
@@ -0,0 +1,22 @@
+package sudoku;
+
+/**
+ * Outcome of a search that may stop before it is finished, see <code>GeneralSudokuSolver.solve(long)</code>.
+ */
+public enum SearchStatus {
+    /**
+     * A solution was found and is in the grid.
+     */
+    SOLVED,
+
+    /**
+     * The whole search tree was visited without finding a solution. The grid is unchanged.
+     */
+    NOT_SOLVABLE,
+
+    /**
+     * The search used up its node budget. It can be resumed or checkpointed, and the grid holds the numbers
+     * placed so far.
+     */
+    SUSPENDED
+}
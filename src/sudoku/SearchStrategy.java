@@ -0,0 +1,23 @@
+package sudoku;
+
+/**
+ * Order in which a <code>ClassicSudokuSolver</code> visits the empty boxes while solving.
+ */
+public enum SearchStrategy {
+    /**
+     * Visits the boxes row by row, from top left to bottom right.
+     */
+    ROW_MAJOR,
+
+    /**
+     * Always continues with the empty box that has the fewest valid numbers left, or with a number
+     * missing from a row, column or three-by-three area that has even fewer valid boxes left.
+     */
+    MOST_CONSTRAINED,
+
+    /**
+     * Before every guess fills in all boxes that can be deduced from naked singles, hidden singles
+     * and locked candidates, then guesses like <code>MOST_CONSTRAINED</code>.
+     */
+    DEDUCTION
+}
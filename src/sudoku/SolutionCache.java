@@ -0,0 +1,169 @@
+package sudoku;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of solutions of classic sudokus, shared by any number of <code>CachingSudokuSolver</code>s
+ * on any number of threads.
+ * <p>
+ * Solutions are stored under the canonical form of the givens, so a sudoku hits the cache when an equivalent
+ * sudoku with relabeled numbers, permuted rows or columns or swapped rows and columns was solved before.
+ * Sudokus found to have no solution are cached as well. When the cache is full the least recently used
+ * entry is evicted.
+ */
+public class SolutionCache {
+    /**
+     * Approximate heap size of one entry: the key string with its 81 bytes, the 81 byte solution and the
+     * map entry that links them
+     */
+    static final int ESTIMATED_ENTRY_BYTES = 296;
+
+    /**
+     * Stored in place of a solution for sudokus that have none
+     */
+    private static final byte[] NOT_SOLVABLE = new byte[0];
+
+    private final int maxEntries;
+    private final LinkedHashMap<String, byte[]> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private long evictions;
+
+    /**
+     * Constructs new SolutionCache holding at most maxEntries solutions
+     *
+     * @param maxEntries the largest number of cached solutions
+     * @throws IllegalArgumentException if maxEntries is less than 1
+     */
+    public SolutionCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries is less than 1");
+        }
+        this.maxEntries = maxEntries;
+        entries = new LinkedHashMap<String, byte[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+                if (size() > SolutionCache.this.maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the number of lookups that found a cached result
+     *
+     * @return the number of hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that found nothing
+     *
+     * @return the number of misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the share of lookups that found a cached result
+     *
+     * @return the hit rate in [0..1], or 0 if there were no lookups
+     */
+    public double getHitRate() {
+        long found = getHits();
+        long lookups = found + getMisses();
+        return lookups == 0 ? 0 : (double) found / lookups;
+    }
+
+    /**
+     * Returns the number of entries evicted to make room for new ones
+     *
+     * @return the number of evictions
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Returns the number of cached results
+     *
+     * @return the number of entries
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the approximate number of bytes of heap used by the cached entries
+     *
+     * @return the estimated memory footprint in bytes
+     */
+    public long getEstimatedBytes() {
+        return (long) size() * ESTIMATED_ENTRY_BYTES;
+    }
+
+    /**
+     * Removes all entries. The statistics are kept.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Looks up the solution of a sudoku in canonical form, and counts the lookup as a hit or miss
+     *
+     * @param form the canonical form of the sudoku
+     * @param dst  the array receiving the solution in canonical form if one is cached
+     * @return 1 if the solution was copied to dst, 0 if the sudoku is cached as not solvable,
+     * -1 if nothing is cached for it
+     */
+    int get(CanonicalForm form, byte[] dst) {
+        byte[] solution;
+        synchronized (this) {
+            solution = entries.get(key(form));
+        }
+        if (solution == null) {
+            misses.increment();
+            return -1;
+        }
+        hits.increment();
+        if (solution == NOT_SOLVABLE) {
+            return 0;
+        }
+        System.arraycopy(solution, 0, dst, 0, 81);
+        return 1;
+    }
+
+    /**
+     * Stores the solution of a sudoku in canonical form
+     *
+     * @param form     the canonical form of the sudoku
+     * @param solution the solution in canonical form, or null if the sudoku is not solvable
+     */
+    void put(CanonicalForm form, byte[] solution) {
+        byte[] value = solution == null ? NOT_SOLVABLE : solution.clone();
+        String key = key(form);
+        synchronized (this) {
+            entries.put(key, value);
+        }
+    }
+
+    /**
+     * Private helpmethod turning canonical givens into a map key holding one byte per box
+     *
+     * @param form the canonical form of the sudoku
+     * @return the key
+     */
+    private static String key(CanonicalForm form) {
+        return new String(form.getGivens(), StandardCharsets.ISO_8859_1);
+    }
+}
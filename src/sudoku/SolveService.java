@@ -0,0 +1,439 @@
+package sudoku;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Solves sudokus over HTTP, using the web server built into the JDK.
+ * <p>
+ * <code>POST /solve</code> takes a JSON string with one sudoku of 81 characters ('0' or '.' for empty boxes),
+ * or a JSON array of such strings, and answers with the solution in the same shape, with null for every sudoku
+ * that is not solvable. The query parameter <code>timeoutMillis</code> sets the deadline of the request, which
+ * defaults to the deadline given to the constructor. A request that misses its deadline is answered with 503.
+ * <code>GET /metrics</code> returns counters in plain text, one <code>name value</code> pair per line.
+ * <p>
+ * Requests are handled on a pool of threads that only parse and wait. Every sudoku is put on one queue that is
+ * served by the solver threads, and a solver thread takes everything waiting, up to a batch size, each time
+ * it is free, so many small concurrent requests are solved in batches without waiting for a batch to fill up.
+ */
+public class SolveService implements AutoCloseable {
+    /**
+     * The largest number of sudokus a solver thread takes from the queue at once
+     */
+    static final int MAX_BATCH_SIZE = 64;
+
+    /**
+     * The largest number of sudokus accepted in one request
+     */
+    static final int MAX_PUZZLES_PER_REQUEST = 10_000;
+
+    private final HttpServer server;
+    private final ExecutorService handlers;
+    private final ExecutorService workers;
+    private final BlockingQueue<Task> queue = new LinkedBlockingQueue<>();
+    private final ThreadLocal<SudokuSolver> solvers;
+    private final long defaultDeadlineMillis;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder badRequests = new LongAdder();
+    private final LongAdder deadlinesMissed = new LongAdder();
+    private final LongAdder puzzles = new LongAdder();
+    private final LongAdder solved = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder solveNanos = new LongAdder();
+
+    /**
+     * Constructs and starts new SolveService
+     *
+     * @param factory               creates the solver used by each solver thread
+     * @param threads               the number of solver threads
+     * @param address               the address to listen on, with port 0 for any free port
+     * @param defaultDeadlineMillis the deadline of requests that do not set one, in milliseconds
+     * @throws IOException              if the server could not listen on address
+     * @throws IllegalArgumentException if factory or address is null, threads is less than 1 or
+     *                                  defaultDeadlineMillis is less than 1
+     */
+    public SolveService(Supplier<SudokuSolver> factory, int threads, InetSocketAddress address,
+                        long defaultDeadlineMillis) throws IOException {
+        if (factory == null || address == null) {
+            throw new IllegalArgumentException("factory or address is null");
+        } else if (threads < 1) {
+            throw new IllegalArgumentException("threads is less than 1");
+        } else if (defaultDeadlineMillis < 1) {
+            throw new IllegalArgumentException("defaultDeadlineMillis is less than 1");
+        }
+        this.defaultDeadlineMillis = defaultDeadlineMillis;
+        solvers = ThreadLocal.withInitial(factory);
+        handlers = Executors.newCachedThreadPool(runnable -> daemon(runnable, "sudoku-http"));
+        workers = Executors.newFixedThreadPool(threads, runnable -> daemon(runnable, "sudoku-solver"));
+        for (int i = 0; i < threads; i++) {
+            workers.execute(this::serve);
+        }
+        server = HttpServer.create(address, 0);
+        server.setExecutor(handlers);
+        server.createContext("/solve", this::handleSolve);
+        server.createContext("/metrics", this::handleMetrics);
+        server.start();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        SolveService service = new SolveService(DancingLinksSudokuSolver::new,
+                Runtime.getRuntime().availableProcessors(), new InetSocketAddress(port), 10_000);
+        System.err.println("Listening on port " + service.getPort());
+    }
+
+    /**
+     * Returns the port the service listens on
+     *
+     * @return the port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops the server and the solver threads. Requests still waiting are answered with 503.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        workers.shutdownNow();
+        for (Task task : queue) {
+            task.future.cancel(false);
+        }
+        handlers.shutdownNow();
+    }
+
+    /**
+     * Private helpmethod answering <code>/solve</code>
+     *
+     * @param exchange the request and response
+     * @throws IOException if the response could not be sent
+     */
+    private void handleSolve(HttpExchange exchange) throws IOException {
+        try {
+            requests.increment();
+            if (!exchange.getRequestMethod().equals("POST")) {
+                badRequests.increment();
+                send(exchange, 405, "text/plain", "Use POST\n");
+                return;
+            }
+            long deadlineMillis;
+            List<byte[]> sudokus = new ArrayList<>();
+            boolean array;
+            try (InputStream body = exchange.getRequestBody()) {
+                deadlineMillis = deadline(exchange.getRequestURI().getRawQuery());
+                String json = new String(body.readAllBytes(), StandardCharsets.UTF_8).trim();
+                array = json.startsWith("[");
+                for (String line : parse(json)) {
+                    sudokus.add(cells(line));
+                }
+            } catch (IllegalArgumentException e) {
+                badRequests.increment();
+                send(exchange, 400, "text/plain", e.getMessage() + "\n");
+                return;
+            }
+
+            List<CompletableFuture<byte[]>> futures = new ArrayList<>(sudokus.size());
+            for (byte[] cells : sudokus) {
+                Task task = new Task(cells);
+                task.future.orTimeout(deadlineMillis, TimeUnit.MILLISECONDS);
+                futures.add(task.future);
+                queue.add(task);
+            }
+            puzzles.add(sudokus.size());
+
+            StringBuilder response = new StringBuilder(array ? "[" : "");
+            try {
+                for (int i = 0; i < futures.size(); i++) {
+                    byte[] solution = futures.get(i).get();
+                    response.append(i > 0 ? "," : "");
+                    if (solution == null) {
+                        response.append("null");
+                    } else {
+                        response.append('"');
+                        for (byte nbr : solution) {
+                            response.append((char) ('0' + nbr));
+                        }
+                        response.append('"');
+                    }
+                }
+            } catch (ExecutionException | CancellationException e) {
+                for (CompletableFuture<byte[]> future : futures) {
+                    future.cancel(false);
+                }
+                Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+                if (cause instanceof TimeoutException) {
+                    deadlinesMissed.increment();
+                    send(exchange, 503, "text/plain", "Deadline of " + deadlineMillis + " ms exceeded\n");
+                } else if (cause instanceof IllegalArgumentException) {
+                    badRequests.increment();
+                    send(exchange, 400, "text/plain", cause.getMessage() + "\n");
+                } else {
+                    send(exchange, 503, "text/plain", "Service is shutting down\n");
+                }
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                send(exchange, 503, "text/plain", "Service is shutting down\n");
+                return;
+            }
+            response.append(array ? "]\n" : "\n");
+            send(exchange, 200, "application/json", response.toString());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Private helpmethod answering <code>/metrics</code>
+     *
+     * @param exchange the request and response
+     * @throws IOException if the response could not be sent
+     */
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        try {
+            String metrics = "requests " + requests.sum() + "\n"
+                    + "bad_requests " + badRequests.sum() + "\n"
+                    + "deadlines_missed " + deadlinesMissed.sum() + "\n"
+                    + "puzzles " + puzzles.sum() + "\n"
+                    + "solved " + solved.sum() + "\n"
+                    + "batches " + batches.sum() + "\n"
+                    + "queued " + queue.size() + "\n"
+                    + "solve_nanos " + solveNanos.sum() + "\n";
+            send(exchange, 200, "text/plain", metrics);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Private helpmethod run by every solver thread: takes all waiting sudokus, up to the batch size,
+     * and solves them one after the other, until the service is closed
+     */
+    private void serve() {
+        List<Task> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        SudokuSolver solver = solvers.get();
+        try {
+            while (true) {
+                batch.add(queue.take());
+                queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+                batches.increment();
+                long start = System.nanoTime();
+                for (Task task : batch) {
+                    task.solve(solver);
+                }
+                solveNanos.add(System.nanoTime() - start);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            for (Task task : batch) {
+                task.future.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Private helpmethod reading the deadline from the query string
+     *
+     * @param query the raw query string, or null
+     * @return the deadline in milliseconds
+     * @throws IllegalArgumentException if timeoutMillis is not a positive number
+     */
+    private long deadline(String query) {
+        if (query != null) {
+            for (String parameter : query.split("&")) {
+                if (parameter.startsWith("timeoutMillis=")) {
+                    try {
+                        long millis = Long.parseLong(parameter.substring("timeoutMillis=".length()));
+                        if (millis > 0) {
+                            return millis;
+                        }
+                    } catch (NumberFormatException ignored) {
+                    }
+                    throw new IllegalArgumentException("timeoutMillis is not a positive number");
+                }
+            }
+        }
+        return defaultDeadlineMillis;
+    }
+
+    /**
+     * Private helpmethod reading the sudokus from a JSON string or array of strings
+     *
+     * @param json the request body
+     * @return the sudokus, not yet checked to be 81 valid characters
+     * @throws IllegalArgumentException if json is not a string or an array of strings
+     */
+    private static List<String> parse(String json) {
+        List<String> lines = new ArrayList<>();
+        boolean array = json.startsWith("[");
+        int i = array ? skipSpace(json, 1) : 0;
+        if (array && i < json.length() && json.charAt(i) == ']') {
+            i++;
+        } else {
+            while (true) {
+                if (i >= json.length() || json.charAt(i) != '"') {
+                    throw new IllegalArgumentException("Expected a string at offset " + i);
+                }
+                int end = json.indexOf('"', i + 1);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unterminated string at offset " + i);
+                } else if (lines.size() == MAX_PUZZLES_PER_REQUEST) {
+                    throw new IllegalArgumentException("More than " + MAX_PUZZLES_PER_REQUEST + " sudokus");
+                }
+                lines.add(json.substring(i + 1, end));
+                i = skipSpace(json, end + 1);
+                if (!array) {
+                    break;
+                } else if (i < json.length() && json.charAt(i) == ']') {
+                    i++;
+                    break;
+                } else if (i < json.length() && json.charAt(i) == ',') {
+                    i = skipSpace(json, i + 1);
+                } else {
+                    throw new IllegalArgumentException("Expected ',' or ']' at offset " + i);
+                }
+            }
+        }
+        if (i != json.length()) {
+            throw new IllegalArgumentException("Unexpected text at offset " + i);
+        }
+        return lines;
+    }
+
+    /**
+     * Private helpmethod reading the numbers of one sudoku
+     *
+     * @param line the sudoku as 81 characters, '0' or '.' for an empty box
+     * @return the 81 numbers, 0 for an empty box
+     * @throws IllegalArgumentException if line is not 81 characters long or contains other characters
+     */
+    private static byte[] cells(String line) {
+        if (line.length() != 81) {
+            throw new IllegalArgumentException("A sudoku is not 81 characters long");
+        }
+        byte[] cells = new byte[81];
+        for (int i = 0; i < 81; i++) {
+            char ch = line.charAt(i);
+            if (ch >= '1' && ch <= '9') {
+                cells[i] = (byte) (ch - '0');
+            } else if (ch != '.' && ch != '0') {
+                throw new IllegalArgumentException("A sudoku contains invalid character '" + ch + "'");
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Private helpmethod skipping whitespace
+     *
+     * @param s    the text
+     * @param from the offset to start at
+     * @return the offset of the first character that is not whitespace, or the length of s
+     */
+    private static int skipSpace(String s, int from) {
+        while (from < s.length() && Character.isWhitespace(s.charAt(from))) {
+            from++;
+        }
+        return from;
+    }
+
+    /**
+     * Private helpmethod sending a complete response
+     *
+     * @param exchange    the request and response
+     * @param status      the HTTP status code
+     * @param contentType the content type of body
+     * @param body        the response body
+     * @throws IOException if the response could not be sent
+     */
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Private helpmethod creating a daemon thread
+     *
+     * @param runnable what the thread runs
+     * @param name     the name of the thread
+     * @return the thread
+     */
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * One sudoku of a request, waiting in the queue for a solver thread
+     */
+    private class Task {
+        private final byte[] cells;
+        private final CompletableFuture<byte[]> future = new CompletableFuture<>();
+
+        /**
+         * Constructs new Task
+         *
+         * @param cells the 81 numbers of the sudoku, 0 for an empty box
+         */
+        private Task(byte[] cells) {
+            this.cells = cells;
+        }
+
+        /**
+         * Solves the sudoku and completes the future, unless the future is already done. Stops searching as
+         * soon as the future is done, for example because the deadline passed.
+         *
+         * @param solver the solver of the current thread
+         */
+        private void solve(SudokuSolver solver) {
+            if (future.isDone()) {
+                return;
+            }
+            solver.setCancellationCheck(future::isDone);
+            try {
+                solver.setCells(cells, 0);
+                if (solver.solve()) {
+                    solved.increment();
+                    byte[] solution = new byte[81];
+                    solver.getCells(solution, 0);
+                    future.complete(solution);
+                } else {
+                    future.complete(null);
+                }
+            } catch (CancellationException ignored) {
+                future.cancel(false);
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            } finally {
+                solver.setCancellationCheck(null);
+            }
+        }
+    }
+}
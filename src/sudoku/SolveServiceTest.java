@@ -0,0 +1,148 @@
+package sudoku;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for testing the HTTP solve service on localhost.
+ */
+class SolveServiceTest {
+
+    /**
+     * A sudoku that takes row-major backtracking about half a second
+     */
+    private static final String SLOW = "........." + ".....3.85" + "..1.2...." + "...5.7..." + "..4...1.."
+            + ".9......." + "5......73" + "..2.1...." + "....4...9";
+
+
+    SolveService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        service = new SolveService(() -> new ClassicSudokuSolver(SearchStrategy.ROW_MAJOR), 2,
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 10_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+    }
+
+    /**
+     * Sends a request to the service
+     *
+     * @param method the HTTP method
+     * @param path   the path and query
+     * @param body   the request body, or null for none
+     * @return the status code followed by a newline and the response body
+     */
+    private String request(String method, String path, String body) throws IOException {
+        URL url = new URL("http://localhost:" + service.getPort() + path);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int status = connection.getResponseCode();
+        try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            return status + "\n" + new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * Checks that solution is a valid, complete grid that keeps the givens of puzzle
+     */
+    private static void assertSolves(String solution, String puzzle) {
+        ClassicSudokuSolver solver = new ClassicSudokuSolver();
+        for (int i = 0; i < 81; i++) {
+            char ch = solution.charAt(i);
+            assertTrue(ch >= '1' && ch <= '9');
+            if (puzzle.charAt(i) != '.') {
+                assertEquals(ch, puzzle.charAt(i));
+            }
+            solver.setNumber(i / 9, i % 9, ch - '0');
+        }
+        assertTrue(solver.isAllValid());
+    }
+
+    @Test
+    void testSolveOne() throws IOException {
+        String response = request("POST", "/solve", "\"" + TestPuzzles.EASY_LINE + "\"");
+        assertTrue(response.startsWith("200\n\""));
+        assertSolves(response.substring(5, 86), TestPuzzles.EASY_LINE);
+    }
+
+    @Test
+    void testSolveArray() throws IOException {
+        String response = request("POST", "/solve", "[ \"" + TestPuzzles.EASY_LINE + "\", \""
+                + TestPuzzles.DUPLICATE_LINE + "\",\"" + TestPuzzles.EASY_LINE.replace('.', '0') + "\" ]");
+        assertTrue(response.startsWith("200\n[\""));
+        String[] solutions = response.substring(5, response.length() - 2).split(",");
+        assertEquals(solutions.length, 3);
+        assertSolves(solutions[0].substring(1, 82), TestPuzzles.EASY_LINE);
+        assertEquals(solutions[1], "null");
+        assertEquals(solutions[2], solutions[0]);
+
+        assertEquals(request("POST", "/solve", "[]"), "200\n[]\n");
+    }
+
+    @Test
+    void testBadRequest() throws IOException {
+        assertTrue(request("POST", "/solve", "").startsWith("400\n"));
+        assertTrue(request("POST", "/solve", "\"" + TestPuzzles.EASY_LINE.substring(1) + "\"").startsWith("400\n"));
+        assertTrue(request("POST", "/solve", "[\"" + TestPuzzles.EASY_LINE + "\" \"" + TestPuzzles.EASY_LINE + "\"]")
+                .startsWith("400\n"));
+        assertTrue(request("POST", "/solve", "\"" + TestPuzzles.EASY_LINE.replace('.', 'x') + "\"")
+                .startsWith("400\n"));
+        assertTrue(request("POST", "/solve?timeoutMillis=0", "\"" + TestPuzzles.EASY_LINE + "\"").startsWith("400\n"));
+        assertTrue(request("GET", "/solve", null).startsWith("405\n"));
+    }
+
+    @Test
+    void testDeadline() throws IOException {
+        long start = System.nanoTime();
+        assertTrue(request("POST", "/solve?timeoutMillis=20", "\"" + SLOW + "\"").startsWith("503\n"));
+        assertTrue(System.nanoTime() - start < 400_000_000L);
+
+        assertTrue(request("POST", "/solve", "\"" + TestPuzzles.EASY_LINE + "\"").startsWith("200\n"));
+    }
+
+    @Test
+    void testMetrics() throws IOException {
+        request("POST", "/solve", "[\"" + TestPuzzles.EASY_LINE + "\",\"" + TestPuzzles.DUPLICATE_LINE + "\"]");
+        String metrics = request("GET", "/metrics", null);
+        assertTrue(metrics.startsWith("200\n"));
+        assertTrue(metrics.contains("\nrequests 1\n"));
+        assertTrue(metrics.contains("\npuzzles 2\n"));
+        assertTrue(metrics.contains("\nsolved 1\n"));
+        assertTrue(metrics.contains("\nqueued 0\n"));
+    }
+
+    @Test
+    void testBadSudokuIsNotQueued() throws IOException {
+        String body = "[\"" + TestPuzzles.EASY_LINE + "\",\"" + TestPuzzles.EASY_LINE.replace('.', 'x') + "\"]";
+        assertTrue(request("POST", "/solve", body).startsWith("400\n"));
+        String metrics = request("GET", "/metrics", null);
+        assertTrue(metrics.contains("\nbad_requests 1\n"));
+        assertTrue(metrics.contains("\npuzzles 0\n"));
+        assertTrue(metrics.contains("\nsolved 0\n"));
+        assertTrue(metrics.contains("\nbatches 0\n"));
+    }
+}
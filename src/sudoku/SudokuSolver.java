@@ -1,5 +1,8 @@
 package sudoku;
 
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
 public interface SudokuSolver {
     /**
      * Sets the number nbr in box r, c.
@@ -55,6 +58,53 @@ public interface SudokuSolver {
      */
     public boolean solve();
 
+    /**
+     * Counts the solutions of the sudoku, stopping as soon as limit solutions have been found.
+     * The grid is left unchanged.
+     *
+     * @param limit the maximum number of solutions to count
+     * @return the number of solutions, at most limit
+     * @throws IllegalArgumentException if limit is less than 1
+     */
+    public int countSolutions(int limit);
+
+    /**
+     * Checks if the sudoku has exactly one solution. The grid is left unchanged.
+     *
+     * @return true if the sudoku has exactly one solution, false if it has none or several
+     */
+    public default boolean hasUniqueSolution() {
+        return countSolutions(2) == 1;
+    }
+
+    /**
+     * Returns every solution of the sudoku, each found only when the stream asks for it, so a stream cut
+     * short with <code>limit</code> or <code>findFirst</code> stops searching and memory use does not grow with
+     * the number of solutions. The grid is left unchanged. By default the solutions are searched by a
+     * <code>GeneralSudokuSolver</code> holding a copy of the grid.
+     *
+     * @return the solutions, in the order the search finds them
+     */
+    public default Stream<int[][]> solutions() {
+        int dimension = getDimension();
+        GeneralSudokuSolver solver = new GeneralSudokuSolver((int) Math.round(Math.sqrt(dimension)));
+        byte[] cells = new byte[dimension * dimension];
+        getCells(cells, 0);
+        solver.setCells(cells, 0);
+        return solver.solutions();
+    }
+
+    /**
+     * Sets a condition that the solver polls while <code>solve</code> or <code>countSolutions</code> is
+     * searching. As soon as it returns true the search stops, the grid is restored to what it was before the
+     * search, and a <code>java.util.concurrent.CancellationException</code> is thrown. Solvers that cannot stop
+     * a running search ignore the condition, which is the default.
+     *
+     * @param cancellationCheck the condition, or null to never cancel
+     */
+    public default void setCancellationCheck(BooleanSupplier cancellationCheck) {
+    }
+
     /**
      * Clears the sudoku.
      */
@@ -77,7 +127,54 @@ public interface SudokuSolver {
     public void setMatrix(int[][] nbrs);
 
     /**
-     * Returns the dimension of the grid
+     * Copies the numbers in the grid row by row into dst, starting at offset. An empty box is
+     * represented by the value 0. Nothing is allocated, so a caller can reuse one array for many grids.
+     *
+     * @param dst    the array to copy the getDimension() * getDimension() numbers to, 81 for a classic sudoku
+     * @param offset the index in dst of the number in box 0,0
+     * @throws IllegalArgumentException if the numbers do not fit in dst at offset
+     */
+    public default void getCells(byte[] dst, int offset) {
+        int dimension = getDimension();
+        int size = dimension * dimension;
+        if (offset < 0 || offset > dst.length - size) {
+            throw new IllegalArgumentException("dst has no room for " + size + " numbers at offset");
+        }
+        for (int i = 0; i < size; i++) {
+            dst[offset + i] = (byte) getNumber(i / dimension, i % dimension);
+        }
+    }
+
+    /**
+     * Fills the grid row by row with the getDimension() * getDimension() numbers in src starting at offset.
+     *
+     * @param src    the array with the numbers to insert, 0 for an empty box
+     * @param offset the index in src of the number for box 0,0
+     * @throws IllegalArgumentException if src has too few numbers at offset or contains values not in
+     *                                  [0..getDimension()]
+     */
+    public default void setCells(byte[] src, int offset) {
+        int dimension = getDimension();
+        int size = dimension * dimension;
+        if (offset < 0 || offset > src.length - size) {
+            throw new IllegalArgumentException("src has fewer than " + size + " numbers at offset");
+        }
+        for (int i = offset; i < offset + size; i++) {
+            if (src[i] > dimension || src[i] < 0) {
+                throw new IllegalArgumentException("Value is not in [0.." + dimension + "]");
+            }
+        }
+        clear();
+        for (int i = 0; i < size; i++) {
+            if (src[offset + i] != 0) {
+                setNumber(i / dimension, i % dimension, src[offset + i]);
+            }
+        }
+    }
+
+    /**
+     * Returns the dimension of the grid, that is the number of rows, columns and numbers.
+     * Classic sudokus have dimension 9, which is the default.
      *
      * @return the dimension of the grid
      */
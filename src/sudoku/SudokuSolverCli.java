@@ -0,0 +1,327 @@
+package sudoku;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Command-line entry point that solves sudokus without a window.
+ * <p>
+ * Reads sudokus in the one-per-line format of <code>PuzzleReader</code> from the given files, or from standard
+ * input if there are none, solves them on a pool of worker threads and writes the solutions in input order to
+ * standard output, or to a file. Sudokus without a solution are written unchanged, so their line still contains
+ * '0' for the empty boxes. Lines that are not sudokus are reported on standard error and skipped. When all
+ * input is solved a summary with throughput and latency percentiles is printed on standard error.
+ * <p>
+ * The runner does not use any AWT or Swing class, so it starts quickly and runs on headless machines.
+ */
+public class SudokuSolverCli {
+    /**
+     * The number of sudokus handed to a worker thread at a time
+     */
+    private static final int CHUNK_SIZE = 1024;
+
+    private static final String USAGE = "usage: java sudoku.SudokuSolverCli [--threads N] "
+            + "[--engine classic|most-constrained|deduction|dancing-links] [--output FILE] [FILE...]";
+
+    public static void main(String[] args) {
+        int status = run(args, System.in, System.out, System.err);
+        if (status != 0) {
+            System.exit(status);
+        }
+    }
+
+    /**
+     * Runs the command line with the given arguments and streams, so it can be run without exiting the JVM
+     *
+     * @param args the command-line arguments
+     * @param in   the input used when no file is given
+     * @param out  the output used when no output file is given
+     * @param err  the stream for errors and the summary
+     * @return the exit status: 0 on success, 1 if reading or writing failed, 2 for invalid arguments
+     */
+    static int run(String[] args, InputStream in, OutputStream out, PrintStream err) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        Supplier<SudokuSolver> engine = DancingLinksSudokuSolver::new;
+        Path output = null;
+        List<Path> inputs = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("--threads")) {
+                    threads = Integer.parseInt(value(args, i++));
+                    if (threads < 1) {
+                        throw new IllegalArgumentException("--threads must be at least 1");
+                    }
+                } else if (args[i].equals("--engine")) {
+                    engine = engine(value(args, i++));
+                } else if (args[i].equals("--output")) {
+                    output = Paths.get(value(args, i++));
+                } else if (args[i].startsWith("--")) {
+                    throw new IllegalArgumentException("unknown option " + args[i]);
+                } else {
+                    inputs.add(Paths.get(args[i]));
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println(USAGE);
+            return 2;
+        }
+
+        Summary summary = new Summary();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        ThreadLocal<SudokuSolver> solvers = ThreadLocal.withInitial(engine);
+        long start = System.nanoTime();
+        try (PuzzleWriter writer = output == null ? new PuzzleWriter(Channels.newChannel(out))
+                : new PuzzleWriter(output)) {
+            ArrayDeque<Future<Chunk>> pending = new ArrayDeque<>();
+            if (inputs.isEmpty()) {
+                solveAll(new PuzzleReader(Channels.newChannel(in)), "<stdin>", executor, solvers, threads,
+                        pending, writer, summary, err);
+            }
+            for (Path input : inputs) {
+                solveAll(new PuzzleReader(FileChannel.open(input, StandardOpenOption.READ)), input.toString(),
+                        executor, solvers, threads, pending, writer, summary, err);
+            }
+            while (!pending.isEmpty()) {
+                writeChunk(pending.poll(), writer, summary);
+            }
+        } catch (IOException e) {
+            err.println("error: " + e.getMessage());
+            return 1;
+        } finally {
+            executor.shutdownNow();
+        }
+        summary.print(System.nanoTime() - start, err);
+        return 0;
+    }
+
+    /**
+     * Private helpmethod returning the value of the option at index i
+     *
+     * @param args the command-line arguments
+     * @param i    the index of the option in args
+     * @return the argument after the option
+     * @throws IllegalArgumentException if the option is the last argument
+     */
+    private static String value(String[] args, int i) {
+        if (i + 1 >= args.length) {
+            throw new IllegalArgumentException("missing value for " + args[i]);
+        }
+        return args[i + 1];
+    }
+
+    /**
+     * Private helpmethod creating the solver factory for an engine name
+     *
+     * @param name the engine name given on the command line
+     * @return the factory
+     * @throws IllegalArgumentException if name is not an engine
+     */
+    private static Supplier<SudokuSolver> engine(String name) {
+        switch (name) {
+            case "classic":
+                return () -> new ClassicSudokuSolver(SearchStrategy.ROW_MAJOR);
+            case "most-constrained":
+                return () -> new ClassicSudokuSolver(SearchStrategy.MOST_CONSTRAINED);
+            case "deduction":
+                return () -> new ClassicSudokuSolver(SearchStrategy.DEDUCTION);
+            case "dancing-links":
+                return DancingLinksSudokuSolver::new;
+            default:
+                throw new IllegalArgumentException("unknown engine " + name);
+        }
+    }
+
+    /**
+     * Private helpmethod reading all sudokus of one input in chunks and handing every chunk to the workers.
+     * At most two chunks per thread are in flight; the oldest is written before another one is read.
+     *
+     * @throws IOException if reading or writing fails
+     */
+    private static void solveAll(PuzzleReader reader, String name, ExecutorService executor,
+                                 ThreadLocal<SudokuSolver> solvers, int threads, ArrayDeque<Future<Chunk>> pending,
+                                 PuzzleWriter writer, Summary summary, PrintStream err) throws IOException {
+        try (PuzzleReader input = reader) {
+            boolean more = true;
+            while (more) {
+                Chunk chunk = new Chunk();
+                while (chunk.count < CHUNK_SIZE) {
+                    try {
+                        if (!input.next(chunk.cells, chunk.count * 81)) {
+                            more = false;
+                            break;
+                        }
+                        chunk.count++;
+                    } catch (IllegalArgumentException e) {
+                        err.println(name + ": " + e.getMessage());
+                        summary.invalid++;
+                    }
+                }
+                if (chunk.count > 0) {
+                    pending.add(executor.submit(() -> chunk.solve(solvers.get())));
+                }
+                while (pending.size() > 2 * threads) {
+                    writeChunk(pending.poll(), writer, summary);
+                }
+            }
+        }
+    }
+
+    /**
+     * Private helpmethod waiting for a chunk to be solved, writing its sudokus and adding it to the summary
+     *
+     * @throws IOException if writing fails
+     */
+    private static void writeChunk(Future<Chunk> future, PuzzleWriter writer, Summary summary) throws IOException {
+        Chunk chunk;
+        try {
+            chunk = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while solving", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        for (int i = 0; i < chunk.count; i++) {
+            writer.write(chunk.cells, i * 81);
+            summary.add(chunk.nanos[i], chunk.solved[i]);
+        }
+    }
+
+    /**
+     * A block of sudokus that is solved by one worker thread. The solutions replace the sudokus in place.
+     */
+    private static class Chunk {
+        private final byte[] cells = new byte[CHUNK_SIZE * 81];
+        private final long[] nanos = new long[CHUNK_SIZE];
+        private final boolean[] solved = new boolean[CHUNK_SIZE];
+        private int count;
+
+        /**
+         * Solves every sudoku of the chunk and measures how long each one took
+         *
+         * @param solver the solver of the current worker thread
+         * @return this chunk
+         */
+        private Chunk solve(SudokuSolver solver) {
+            for (int i = 0; i < count; i++) {
+                solver.setCells(cells, i * 81);
+                long start = System.nanoTime();
+                solved[i] = solver.solve();
+                nanos[i] = System.nanoTime() - start;
+                if (solved[i]) {
+                    solver.getCells(cells, i * 81);
+                }
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Counts the sudokus and keeps a histogram of their solve times. Values are put in buckets of 1/16 of a
+     * power of two, so the percentiles are accurate to about 6 percent without storing every time.
+     */
+    private static class Summary {
+        private static final int SUB_BUCKETS = 16;
+
+        private final long[] histogram = new long[64 * SUB_BUCKETS];
+        private long puzzles;
+        private long solved;
+        private long invalid;
+
+        /**
+         * Records one solved or unsolvable sudoku
+         *
+         * @param nanos    the solve time in nanoseconds
+         * @param isSolved true if the sudoku was solved
+         */
+        private void add(long nanos, boolean isSolved) {
+            puzzles++;
+            if (isSolved) {
+                solved++;
+            }
+            histogram[bucket(Math.max(nanos, 0))]++;
+        }
+
+        /**
+         * Returns the solve time below which the given share of the sudokus finished
+         *
+         * @param share the share in [0..1]
+         * @return the lower bound of the bucket holding the percentile, in nanoseconds
+         */
+        private long percentile(double share) {
+            long rank = (long) Math.ceil(share * puzzles);
+            long seen = 0;
+            for (int b = 0; b < histogram.length; b++) {
+                seen += histogram[b];
+                if (seen >= rank && seen > 0) {
+                    return lowerBound(b);
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * Prints the summary
+         *
+         * @param elapsed the wall time of the whole run in nanoseconds
+         * @param err     the stream to print to
+         */
+        private void print(long elapsed, PrintStream err) {
+            double seconds = elapsed / 1e9;
+            err.println(String.format(Locale.ROOT,
+                    "%d sudokus (%d solved, %d not solvable, %d invalid lines) in %.3f s: %.1f sudokus/s, "
+                            + "p50 %.1f us, p99 %.1f us",
+                    puzzles, solved, puzzles - solved, invalid, seconds, seconds > 0 ? puzzles / seconds : 0,
+                    percentile(0.5) / 1e3, percentile(0.99) / 1e3));
+        }
+
+        /**
+         * Private helpmethod finding the bucket of a time
+         *
+         * @param nanos the time in nanoseconds, not negative
+         * @return the bucket index
+         */
+        private static int bucket(long nanos) {
+            if (nanos < SUB_BUCKETS) {
+                return (int) nanos;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+            int sub = (int) (nanos >>> (exponent - 4)) & (SUB_BUCKETS - 1);
+            return (exponent - 3) * SUB_BUCKETS + sub;
+        }
+
+        /**
+         * Private helpmethod returning the smallest time of a bucket
+         *
+         * @param bucket the bucket index
+         * @return the time in nanoseconds
+         */
+        private static long lowerBound(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int exponent = bucket / SUB_BUCKETS + 3;
+            return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - 4);
+        }
+    }
+}
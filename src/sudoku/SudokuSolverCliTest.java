@@ -0,0 +1,61 @@
+package sudoku;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for testing the command-line runner.
+ */
+class SudokuSolverCliTest {
+    private static final String UNSOLVABLE =
+            "123......456.........7....................................................7......";
+
+    private String[] run(String input, String... args) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        int status = SudokuSolverCli.run(args, new ByteArrayInputStream(input.getBytes(StandardCharsets.US_ASCII)),
+                out, new PrintStream(err, true));
+        return new String[]{Integer.toString(status), out.toString(), err.toString()};
+    }
+
+    @Test
+    void testSolvesInInputOrder() {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            input.append(i % 3 == 2 ? UNSOLVABLE : TestPuzzles.EASY_LINE).append('\n');
+        }
+        input.append("not a sudoku\n");
+        for (String engine : new String[]{"classic", "deduction", "dancing-links"}) {
+            String[] result = run(input.toString(), "--threads", "3", "--engine", engine);
+            assertEquals(result[0], "0");
+            String[] lines = result[1].split("\n");
+            assertEquals(lines.length, 3000);
+            for (int i = 0; i < 3000; i++) {
+                assertEquals(lines[i], i % 3 == 2 ? UNSOLVABLE.replace('.', '0') : TestPuzzles.EASY_SOLUTION_LINE);
+            }
+            assertTrue(result[2].contains("Line 3001"));
+            assertTrue(result[2].contains("3000 sudokus (2000 solved, 1000 not solvable, 1 invalid lines)"));
+            assertTrue(result[2].contains("p99"));
+        }
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertEquals(run("", "--engine", "quantum")[0], "2");
+        assertEquals(run("", "--threads", "0")[0], "2");
+        assertEquals(run("", "--verbose")[0], "2");
+        assertTrue(run("", "--verbose")[2].contains("unknown option --verbose"));
+        for (String option : new String[]{"--threads", "--engine", "--output"}) {
+            String[] result = run("", option);
+            assertEquals(result[0], "2");
+            assertTrue(result[2].contains("missing value for " + option));
+        }
+        assertEquals(run("", "no-such-file.txt")[0], "1");
+    }
+}
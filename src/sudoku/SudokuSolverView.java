@@ -4,27 +4,49 @@ import javax.swing.JButton;
 import javax.swing.JFrame;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JProgressBar;
 import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.GridLayout;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Implementation of a view (window) applet for solving sudokus.
  */
 public class SudokuSolverView {
-    private static SudokuSolver solver;
+    private static final int SOLVE_TIMEOUT_SECONDS = 30;
+
+    private static ClassicSudokuSolver solver;
+    private static AsyncSolver asyncSolver;
     private JButton solveButton;
+    private JButton cancelButton;
     private JButton clearButton;
+    private JProgressBar progressBar;
     private JPanel mainPanel;
     private JPanel buttonPanel;
     private JPanel fieldPanel;
     private SudokuTextField[][] sudokuTextFields;
+    private CompletableFuture<int[][]> pendingSolve;
+    private final int[] changedBoxes = new int[21];
 
     /**
      * Constructs a new SudokuSolverView window, adds action listeners to the buttons
      */
     public SudokuSolverView() {
+        for (int r = 0; r < 9; r++) {
+            for (int c = 0; c < 9; c++) {
+                addEditListener(r, c);
+            }
+        }
+
         clearButton.addActionListener(e -> {
             for (SudokuTextField[] row : sudokuTextFields) {
                 for (SudokuTextField field : row) {
@@ -41,7 +63,6 @@ public class SudokuSolverView {
                     nbrs[r][c] = getNumber(r, c);
                 }
             }
-            solver.setMatrix(nbrs);
             if (!solver.isAllValid()) {
                 JOptionPane.showMessageDialog(mainPanel,
                         "Not all values are valid!",
@@ -50,26 +71,22 @@ public class SudokuSolverView {
                 return;
             }
 
-            if (!solver.solve()) {
-                JOptionPane.showMessageDialog(mainPanel,
-                        "The sudoku could not be solved.",
-                        "Not solvable",
-                        JOptionPane.ERROR_MESSAGE);
-            }
+            setSolving(true);
+            pendingSolve = asyncSolver.solve(nbrs, SOLVE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            pendingSolve.whenComplete((solution, error) -> SwingUtilities.invokeLater(() -> showResult(solution, error)));
+        });
 
-            for (int r = 0; r < 9; r++) {
-                for (int c = 0; c < 9; c++) {
-                    setNumber(r, c, solver.getNumber(r, c));
-                }
+        cancelButton.addActionListener(e -> {
+            if (pendingSolve != null) {
+                pendingSolve.cancel(false);
             }
-
-
         });
 
     }
 
     public static void main(String[] args) {
         solver = new ClassicSudokuSolver();
+        asyncSolver = new AsyncSolver(ClassicSudokuSolver::new, 1);
 
         JFrame frame = new JFrame("Sudoku Solver");
         frame.setContentPane(new SudokuSolverView().mainPanel);
@@ -103,6 +120,91 @@ public class SudokuSolverView {
 
     }
 
+    /**
+     * Keeps the solver in step with <code>SudokuTextField</code> r,c and highlights the fields whose
+     * conflict state changed after every edit, without checking the whole grid.
+     *
+     * @param r the row
+     * @param c the column
+     */
+    private void addEditListener(int r, int c) {
+        sudokuTextFields[r][c].getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                edited(r, c);
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                edited(r, c);
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+            }
+        });
+    }
+
+    /**
+     * Passes the number in <code>SudokuTextField</code> r,c to the solver and updates the highlights
+     *
+     * @param r the row
+     * @param c the column
+     */
+    private void edited(int r, int c) {
+        int count = solver.edit(r, c, getNumber(r, c), changedBoxes);
+        for (int k = 0; k < count; k++) {
+            int i = changedBoxes[k];
+            sudokuTextFields[i / 9][i % 9].setConflicting(solver.isConflicting(i / 9, i % 9));
+        }
+    }
+
+    /**
+     * Shows the outcome of a finished solve: fills in the solution, or tells the user why there is none.
+     *
+     * @param solution the solution, or null if the sudoku was not solvable or the solve did not finish
+     * @param error    the reason the solve did not finish, or null
+     */
+    private void showResult(int[][] solution, Throwable error) {
+        setSolving(false);
+        pendingSolve = null;
+        Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+        if (cause instanceof CancellationException) {
+            return;
+        } else if (cause instanceof TimeoutException) {
+            JOptionPane.showMessageDialog(mainPanel,
+                    "The sudoku could not be solved within " + SOLVE_TIMEOUT_SECONDS + " seconds.",
+                    "Timed out",
+                    JOptionPane.ERROR_MESSAGE);
+            return;
+        } else if (solution == null) {
+            JOptionPane.showMessageDialog(mainPanel,
+                    "The sudoku could not be solved.",
+                    "Not solvable",
+                    JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        for (int r = 0; r < 9; r++) {
+            for (int c = 0; c < 9; c++) {
+                setNumber(r, c, solution[r][c]);
+            }
+        }
+    }
+
+    /**
+     * Switches the buttons and the progress indicator between solving and idle.
+     *
+     * @param solving true while a solve is running
+     */
+    private void setSolving(boolean solving) {
+        solveButton.setEnabled(!solving);
+        clearButton.setEnabled(!solving);
+        cancelButton.setEnabled(solving);
+        progressBar.setIndeterminate(solving);
+        progressBar.setVisible(solving);
+    }
+
     /**
      * Gets number from <code>SudokuTextField</code> r,c.
      *
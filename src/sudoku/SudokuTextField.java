@@ -5,6 +5,7 @@ import javax.swing.text.AttributeSet;
 import javax.swing.text.BadLocationException;
 import javax.swing.text.Document;
 import javax.swing.text.PlainDocument;
+import java.awt.Color;
 
 /**
  * Text field for Sudoku Implementation which only accepts one character and only values from [1..9]
@@ -18,6 +19,15 @@ public class SudokuTextField extends JTextField {
         super();
     }
 
+    /**
+     * Highlights the number in the field as conflicting with another field, or removes the highlight
+     *
+     * @param conflicting true if the number conflicts with another field
+     */
+    public void setConflicting(boolean conflicting) {
+        setForeground(conflicting ? Color.RED : Color.BLACK);
+    }
+
     /**
      * Returns the fields data model to be used at construction. An instance of SudokuFieldDocument is returned.
      *
@@ -0,0 +1,234 @@
+package sudoku;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sudokus and checks shared by the solver test classes. The matrices are shared, so tests must copy them
+ * before changing them.
+ */
+final class TestPuzzles {
+    /**
+     * A sudoku with a unique solution that is found by deduction alone
+     */
+    static final int[][] EASY = {
+            {0, 0, 8, 0, 0, 9, 0, 6, 2},
+            {0, 0, 0, 0, 0, 0, 0, 0, 5},
+            {1, 0, 2, 5, 0, 0, 0, 0, 0},
+            {0, 0, 0, 2, 1, 0, 0, 9, 0},
+            {0, 5, 0, 0, 0, 0, 6, 0, 0},
+            {6, 0, 0, 0, 0, 0, 0, 2, 8},
+            {4, 1, 0, 6, 0, 8, 0, 0, 0},
+            {8, 6, 0, 0, 3, 0, 1, 0, 0},
+            {0, 0, 0, 0, 0, 0, 4, 0, 0}
+    };
+
+    /**
+     * The solution of <code>EASY</code>
+     */
+    static final int[][] EASY_SOLUTION = {
+            {5, 4, 8, 1, 7, 9, 3, 6, 2},
+            {3, 7, 6, 8, 2, 4, 9, 1, 5},
+            {1, 9, 2, 5, 6, 3, 8, 7, 4},
+            {7, 8, 4, 2, 1, 6, 5, 9, 3},
+            {2, 5, 9, 3, 8, 7, 6, 4, 1},
+            {6, 3, 1, 9, 4, 5, 7, 2, 8},
+            {4, 1, 5, 6, 9, 8, 2, 3, 7},
+            {8, 6, 7, 4, 3, 2, 1, 5, 9},
+            {9, 2, 3, 7, 5, 1, 4, 8, 6}
+    };
+
+    /**
+     * A sudoku with a unique solution that needs a lot of guessing
+     */
+    static final int[][] HARD = {
+            {8, 0, 0, 0, 0, 0, 0, 0, 0},
+            {0, 0, 3, 6, 0, 0, 0, 0, 0},
+            {0, 7, 0, 0, 9, 0, 2, 0, 0},
+            {0, 5, 0, 0, 0, 7, 0, 0, 0},
+            {0, 0, 0, 0, 4, 5, 7, 0, 0},
+            {0, 0, 0, 1, 0, 0, 0, 3, 0},
+            {0, 0, 1, 0, 0, 0, 0, 6, 8},
+            {0, 0, 8, 5, 0, 0, 0, 1, 0},
+            {0, 9, 0, 0, 0, 0, 4, 0, 0}
+    };
+
+    /**
+     * Has no solution, since the top right box has no place for a 7. Clearing the 7 at (2, 3) makes it solvable.
+     */
+    static final int[][] NO_PLACE_FOR_SEVEN = {
+            {1, 2, 3, 0, 0, 0, 0, 0, 0},
+            {4, 5, 6, 0, 0, 0, 0, 0, 0},
+            {0, 0, 0, 7, 0, 0, 0, 0, 0},
+            {0, 0, 0, 0, 0, 0, 0, 0, 0},
+            {0, 0, 0, 0, 0, 0, 0, 0, 0},
+            {0, 0, 0, 0, 0, 0, 0, 0, 0},
+            {0, 0, 0, 0, 0, 0, 0, 0, 0},
+            {0, 0, 0, 0, 0, 0, 0, 0, 0},
+            {0, 0, 0, 0, 0, 0, 0, 0, 0}
+    };
+
+    /**
+     * Has no solution, since the number 5 is given twice in the first row
+     */
+    static final int[][] TWO_FIVES = {
+            {0, 0, 5, 5, 0, 0, 0, 0, 0},
+            {0, 0, 0, 0, 0, 0, 0, 0, 0},
+            {0, 0, 0, 0, 0, 0, 0, 0, 0},
+            {0, 0, 0, 0, 0, 0, 0, 0, 0},
+            {0, 0, 0, 0, 0, 0, 0, 0, 0},
+            {0, 0, 0, 0, 0, 0, 0, 0, 0},
+            {0, 0, 0, 0, 0, 0, 0, 0, 0},
+            {0, 0, 0, 0, 0, 0, 0, 0, 0},
+            {0, 0, 0, 0, 0, 0, 0, 0, 0}
+    };
+
+    /**
+     * A sudoku with a unique solution that needs some guessing
+     */
+    static final int[][] MEDIUM = {
+            {8, 4, 0, 0, 0, 0, 7, 0, 1},
+            {0, 0, 0, 0, 8, 0, 0, 5, 0},
+            {0, 0, 6, 0, 0, 0, 0, 0, 4},
+            {0, 7, 0, 1, 3, 0, 4, 0, 0},
+            {0, 2, 3, 0, 0, 0, 1, 9, 8},
+            {0, 0, 0, 5, 0, 0, 0, 0, 3},
+            {7, 9, 0, 0, 0, 0, 0, 0, 0},
+            {0, 0, 0, 0, 2, 0, 0, 0, 9},
+            {0, 0, 8, 0, 4, 0, 0, 3, 0}
+    };
+
+    /**
+     * The solution of <code>MEDIUM</code>
+     */
+    static final int[][] MEDIUM_SOLUTION = {
+            {8, 4, 2, 3, 5, 9, 7, 6, 1},
+            {1, 3, 7, 6, 8, 4, 9, 5, 2},
+            {9, 5, 6, 2, 7, 1, 3, 8, 4},
+            {6, 7, 9, 1, 3, 8, 4, 2, 5},
+            {5, 2, 3, 4, 6, 7, 1, 9, 8},
+            {4, 8, 1, 5, 9, 2, 6, 7, 3},
+            {7, 9, 5, 8, 1, 3, 2, 4, 6},
+            {3, 6, 4, 7, 2, 5, 8, 1, 9},
+            {2, 1, 8, 9, 4, 6, 5, 3, 7}
+    };
+
+    /**
+     * Has no solution, but no number has a duplicate and no box is without a valid number, given row by row
+     * with '.' for an empty box
+     */
+    static final String UNSOLVABLE =
+            ".....5.8....6.1.43..........1.5........1.6...3.......553.....61........4.........";
+
+    /**
+     * <code>EASY</code> given row by row, with '.' for an empty box
+     */
+    static final String EASY_LINE =
+            "..8..9.62........51.25........21..9..5....6..6......2841.6.8...86..3.1........4..";
+
+    /**
+     * <code>EASY_SOLUTION</code> given row by row
+     */
+    static final String EASY_SOLUTION_LINE =
+            "548179362376824915192563874784216593259387641631945728415698237867432159923751486";
+
+    /**
+     * <code>HARD</code> given row by row, with '.' for an empty box
+     */
+    static final String HARD_LINE =
+            "8..........36......7..9.2...5...7.......457.....1...3...1....68..85...1..9....4..";
+
+    /**
+     * <code>NO_PLACE_FOR_SEVEN</code> given row by row, with '.' for an empty box
+     */
+    static final String NO_PLACE_FOR_SEVEN_LINE = "123......456.........7..." + ".".repeat(56);
+
+    /**
+     * Has no solution, since the number 1 is given twice in the first row
+     */
+    static final String DUPLICATE_LINE = "11" + ".".repeat(79);
+
+    private TestPuzzles() {
+    }
+
+    /**
+     * Clears the solver and sets the numbers of a puzzle given row by row, with '.' for an empty box
+     *
+     * @param solver the solver to set the puzzle in
+     * @param puzzle the 81 characters of the puzzle
+     */
+    static void setPuzzle(SudokuSolver solver, String puzzle) {
+        solver.clear();
+        for (int i = 0; i < 81; i++) {
+            char ch = puzzle.charAt(i);
+            if (ch != '.') {
+                solver.setNumber(i / 9, i % 9, ch - '0');
+            }
+        }
+    }
+
+    /**
+     * Checks that two matrices hold the same numbers, row by row
+     *
+     * @param expected the expected matrix
+     * @param actual   the matrix to check
+     */
+    static void assertSameMatrix(int[][] expected, int[][] actual) {
+        assertEquals(actual.length, expected.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertArrayEquals(expected[i], actual[i]);
+        }
+    }
+
+    /**
+     * Runs the sudokus of <code>ClassicSudokuSolverTest.TestCase3</code> to <code>TestCase6</code> against a
+     * solver: two without a solution that become solvable once the conflict is removed, and two with a unique
+     * solution
+     *
+     * @param solver the solver to check
+     */
+    static void assertSolvesTestCases(SudokuSolver solver) {
+        solver.setMatrix(NO_PLACE_FOR_SEVEN);
+        assertFalse(solver.solve());
+        solver.clearNumber(2, 3);
+        assertTrue(solver.solve());
+
+        solver.setMatrix(TWO_FIVES);
+        assertFalse(solver.solve());
+        solver.clear();
+        assertTrue(solver.solve());
+
+        solver.setMatrix(EASY);
+        assertTrue(solver.solve());
+        assertSameMatrix(EASY_SOLUTION, solver.getMatrix());
+
+        solver.setMatrix(MEDIUM);
+        assertTrue(solver.solve());
+        assertSameMatrix(MEDIUM_SOLUTION, solver.getMatrix());
+    }
+
+    /**
+     * Checks the <code>countSolutions</code> contract that every 9x9 engine shares: counting stops at the limit,
+     * leaves the numbers in place and rejects a limit below 1. The solver must be empty.
+     *
+     * @param solver an empty 9x9 solver
+     */
+    static void assertCountsSolutions(SudokuSolver solver) {
+        assertEquals(solver.countSolutions(5), 5);
+        assertFalse(solver.hasUniqueSolution());
+
+        solver.setMatrix(EASY);
+        assertEquals(solver.countSolutions(10), 1);
+        assertTrue(solver.hasUniqueSolution());
+        assertSameMatrix(EASY, solver.getMatrix());
+
+        solver.clearNumber(0, 2);
+        solver.clearNumber(0, 5);
+        solver.clearNumber(1, 8);
+        assertEquals(solver.countSolutions(1), 1);
+        assertTrue(solver.countSolutions(1000) > 1);
+
+        solver.setNumber(0, 0, 1);
+        assertEquals(solver.countSolutions(10), 0);
+        assertThrows(IllegalArgumentException.class, () -> solver.countSolutions(0));
+    }
+}